@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# Checks cross-instance cache invalidation against the local database. Two
+# instances are started on ports 8080 and 8081; an emitter type is renamed on the
+# first and must be served with its new name by the second, which had it cached.
+#
+# The second part terminates the listener connections in PostgreSQL, renames the
+# emitter type while the second instance is not listening, and expects the flush
+# after its reconnect to pick up the missed change.
+#
+# Usage: loadtest/check-cache-invalidation.sh
+#
+# Requires curl and a running database (docker compose up -d database).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+OUT=target/loadtest
+TIMEOUT=${TIMEOUT:-15}
+DATABASE_CONTAINER=${DATABASE_CONTAINER:-emitterverificationdb}
+mkdir -p "$OUT"
+
+jar_path() {
+    ls target/backend-*.jar | grep -v plain | head -n 1
+}
+
+wait_ready() {
+    until curl -s -o /dev/null "http://localhost:$1/api/v1/types/1"; do
+        sleep 0.2
+    done
+}
+
+name_of() {
+    curl -s "http://localhost:$1/api/v1/types/$2" | sed -n 's/.*"name":"\([^"]*\)".*/\1/p'
+}
+
+rename() {
+    curl -s -o /dev/null -X PUT -H 'Content-Type: application/json' \
+        -d "{\"name\":\"$3\"}" "http://localhost:$1/api/v1/types/$2"
+}
+
+expect_name() {
+    local deadline=$((SECONDS + TIMEOUT))
+    until [ "$(name_of "$1" "$2")" = "$3" ]; do
+        if [ "$SECONDS" -ge "$deadline" ]; then
+            echo "FAIL: $4 (instance on port $1 still serves \"$(name_of "$1" "$2")\")" >&2
+            exit 1
+        fi
+        sleep 0.2
+    done
+    echo "OK: $4"
+}
+
+[ -n "$(ls target/backend-*.jar 2>/dev/null)" ] || ./mvnw -q -DskipTests package
+
+java -jar "$(jar_path)" --server.port=8080 > "$OUT/invalidation-8080.log" 2>&1 &
+FIRST=$!
+java -jar "$(jar_path)" --server.port=8081 --spring.flyway.enabled=false > "$OUT/invalidation-8081.log" 2>&1 &
+SECOND=$!
+trap 'kill "$FIRST" "$SECOND" 2> /dev/null || true' EXIT
+
+wait_ready 8080
+wait_ready 8081
+
+NAME="Invalidation check $(date +%s)"
+ID=$(curl -s -X POST -H 'Content-Type: application/json' -d "{\"name\":\"$NAME\"}" \
+    http://localhost:8080/api/v1/types | sed -n 's/.*"id":\([0-9]*\).*/\1/p')
+
+name_of 8081 "$ID" > /dev/null
+rename 8080 "$ID" "$NAME (renamed)"
+expect_name 8081 "$ID" "$NAME (renamed)" "rename is evicted from the other instance"
+
+docker exec "$DATABASE_CONTAINER" psql -q -U "${POSTGRES_USERNAME:-root}" -d "${POSTGRES_DATABASE:-emitterverificationdb}" \
+    -c "SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = 'emitter-type-cache-invalidation'" \
+    > /dev/null
+
+name_of 8081 "$ID" > /dev/null
+rename 8080 "$ID" "$NAME (missed)"
+expect_name 8081 "$ID" "$NAME (missed)" "change missed while disconnected is flushed after reconnect"
@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Runs the k6 load test against the application once per set of Spring profiles
+# and the same PostgreSQL database, so that throughput and tail latency can be
+# compared between configurations.
+#
+# Usage: loadtest/compare-profiles.sh [threads|logging|stack]
+#   threads - platform-thread vs virtual-thread request execution (default)
+#   logging - synchronous console logging vs asynchronous structured logging,
+#             measured on GET /api/v1/types/{id} (SCENARIO=byId)
+#   stack   - servlet + JDBC vs WebFlux + R2DBC (reactive profile, built with
+#             -Preactive); run it with VUS well above the Tomcat worker pool,
+#             e.g. VUS=2000, to see where the blocking stack starts queueing
+#
+# Requires Java 21, k6 and a running database (docker compose up -d database).
+# Summaries are written to target/loadtest/<mode>.json.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+COMPARISON=${1:-threads}
+VUS=${VUS:-400}
+DURATION=${DURATION:-2m}
+OUT=target/loadtest
+mkdir -p "$OUT"
+
+MAVEN_PROFILES=java21
+if [ "$COMPARISON" = stack ]; then
+    MAVEN_PROFILES=java21,reactive
+fi
+
+./mvnw -q -P"$MAVEN_PROFILES" -DskipTests package
+JAR=$(ls target/backend-*.jar | grep -v plain | head -n 1)
+
+run_mode() {
+    local mode=$1 profiles=$2 scenario=$3
+    java -jar "$JAR" --spring.profiles.active="$profiles" > "$OUT/$mode.log" 2>&1 &
+    local pid=$!
+
+    until curl -sf http://localhost:8080/actuator/health > /dev/null; do sleep 1; done
+
+    k6 run -q -e VUS="$VUS" -e DURATION="$DURATION" -e SCENARIO="$scenario" \
+        --summary-export="$OUT/$mode.json" loadtest/emitter-types.js || true
+
+    kill "$pid"
+    wait "$pid" || true
+}
+
+case "$COMPARISON" in
+    threads)
+        run_mode platform-threads default mixed
+        run_mode virtual-threads virtual-threads mixed
+        echo "Summaries: $OUT/platform-threads.json $OUT/virtual-threads.json"
+        ;;
+    logging)
+        run_mode sync-logging default byId
+        run_mode async-logging prod byId
+        echo "Summaries: $OUT/sync-logging.json $OUT/async-logging.json"
+        ;;
+    stack)
+        run_mode servlet default mixed
+        run_mode reactive reactive mixed
+        echo "Summaries: $OUT/servlet.json $OUT/reactive.json"
+        ;;
+    *)
+        echo "Unknown comparison: $COMPARISON (expected threads, logging or stack)" >&2
+        exit 1
+        ;;
+esac
@@ -0,0 +1,43 @@
+// k6 load test for the emitter type read endpoints.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=200 -e DURATION=2m \
+//          --summary-export=summary.json loadtest/emitter-types.js
+//
+// IDS_MAX bounds the ids used by GET /api/v1/types/{id}; seed the catalog first
+// (for example through POST /api/v1/types/bulk).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const IDS_MAX = parseInt(__ENV.IDS_MAX || '1000');
+const SCENARIO = __ENV.SCENARIO || 'mixed';
+
+export const options = {
+    vus: parseInt(__ENV.VUS || '100'),
+    duration: __ENV.DURATION || '1m',
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+function byId() {
+    const id = 1 + Math.floor(Math.random() * IDS_MAX);
+    const response = http.get(`${BASE_URL}/api/v1/types/${id}`, { tags: { name: 'byId' } });
+    check(response, { 'byId 200/404': (r) => r.status === 200 || r.status === 404 });
+}
+
+function page() {
+    const pageNumber = 1 + Math.floor(Math.random() * 20);
+    const response = http.get(`${BASE_URL}/api/v1/types?page=${pageNumber}&size=20`, { tags: { name: 'page' } });
+    check(response, { 'page 200': (r) => r.status === 200 });
+}
+
+export default function () {
+    if (SCENARIO === 'byId') {
+        byId();
+    } else if (SCENARIO === 'page') {
+        page();
+    } else if (Math.random() < 0.8) {
+        byId();
+    } else {
+        page();
+    }
+}
@@ -0,0 +1,101 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request and resident memory of the application for each
+# startup mode against the same PostgreSQL database:
+#   jar    - plain executable JAR
+#   aot    - JAR with Spring AOT bean definitions (-Paot)
+#   cds    - AOT + class-data sharing archive from a training run (-Paot,cds)
+#   native - GraalVM native image (-Pnative, needs GraalVM on PATH)
+#
+# Usage: loadtest/measure-startup.sh [jar|aot|cds|native|all]
+#
+# Time-to-first-request is taken from process start until GET /api/v1/types/1
+# answers (200 or 404), RSS right after that request and again after WARMUP
+# seconds of k6 traffic. Each mode is started RUNS times; results are appended to
+# target/loadtest/startup.csv.
+#
+# Requires curl, k6 and a running database (docker compose up -d database).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+MODES=${1:-all}
+RUNS=${RUNS:-5}
+WARMUP=${WARMUP:-30s}
+OUT=target/loadtest
+mkdir -p "$OUT"
+[ -f "$OUT/startup.csv" ] || echo "mode,run,first_request_ms,rss_first_kb,rss_warm_kb" > "$OUT/startup.csv"
+
+now_ms() {
+    date +%s%3N
+}
+
+rss_kb() {
+    ps -o rss= -p "$1" | tr -d ' '
+}
+
+measure() {
+    local mode=$1
+    shift
+
+    for run in $(seq 1 "$RUNS"); do
+        local start pid status first rss_first rss_warm
+        start=$(now_ms)
+        "$@" > "$OUT/startup-$mode.log" 2>&1 &
+        pid=$!
+
+        until status=$(curl -s -o /dev/null -w '%{http_code}' http://localhost:8080/api/v1/types/1) \
+                && { [ "$status" = 200 ] || [ "$status" = 404 ]; }; do
+            sleep 0.05
+        done
+        first=$(($(now_ms) - start))
+        rss_first=$(rss_kb "$pid")
+
+        k6 run -q -e VUS=50 -e DURATION="$WARMUP" -e SCENARIO=mixed loadtest/emitter-types.js > /dev/null || true
+        rss_warm=$(rss_kb "$pid")
+
+        kill "$pid"
+        wait "$pid" || true
+
+        echo "$mode,$run,$first,$rss_first,$rss_warm" | tee -a "$OUT/startup.csv"
+    done
+}
+
+jar_path() {
+    ls target/backend-*.jar | grep -v plain | head -n 1
+}
+
+run_mode() {
+    case "$1" in
+        jar)
+            ./mvnw -q -DskipTests clean package
+            measure jar java -jar "$(jar_path)"
+            ;;
+        aot)
+            ./mvnw -q -Paot -DskipTests clean package
+            measure aot java -Dspring.aot.enabled=true -jar "$(jar_path)"
+            ;;
+        cds)
+            ./mvnw -q -Paot,cds -DskipTests clean package
+            measure cds java -XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true \
+                -jar "target/cds/$(basename "$(jar_path)")"
+            ;;
+        native)
+            ./mvnw -q -Pnative -DskipTests clean native:compile
+            measure native target/backend
+            ;;
+        *)
+            echo "Unknown mode: $1 (expected jar, aot, cds, native or all)" >&2
+            exit 1
+            ;;
+    esac
+}
+
+if [ "$MODES" = all ]; then
+    for mode in jar aot cds native; do
+        run_mode "$mode"
+    done
+else
+    run_mode "$MODES"
+fi
+
+echo "Results: $OUT/startup.csv"
@@ -0,0 +1,86 @@
+package ru.klokov.backend.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ru.klokov.backend.config.AppConfig;
+import ru.klokov.backend.dto.emittertype.EmitterTypeRequest;
+import ru.klokov.backend.dto.emittertype.EmitterTypeResponse;
+import ru.klokov.backend.mapper.EmitterTypeMapper;
+import ru.klokov.backend.mapper.GeneratedEmitterTypeMapper;
+import ru.klokov.backend.mapper.ModelMapperEmitterTypeMapper;
+import ru.klokov.backend.model.EmitterType;
+
+/**
+ * Compares the reflective ModelMapper path with the MapStruct generated mapper on
+ * the list conversion done by the list and page endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmitterTypeMappingBenchmark {
+    @Param({ "10", "100", "1000" })
+    private int size;
+
+    private EmitterTypeMapper modelMapper;
+    private EmitterTypeMapper generatedMapper;
+    private List<EmitterType> emitterTypes;
+    private EmitterTypeRequest emitterTypeRequest;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapperEmitterTypeMapper(new AppConfig().modelMapper());
+        generatedMapper = Mappers.getMapper(GeneratedEmitterTypeMapper.class);
+
+        emitterTypes = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++)
+            emitterTypes.add(EmitterType.builder().id(i).name("Type " + i).build());
+
+        emitterTypeRequest = new EmitterTypeRequest("Type 1");
+    }
+
+    @Benchmark
+    public List<EmitterTypeResponse> modelMapperToResponses() {
+        return toResponses(modelMapper);
+    }
+
+    @Benchmark
+    public List<EmitterTypeResponse> generatedToResponses() {
+        return toResponses(generatedMapper);
+    }
+
+    @Benchmark
+    public EmitterType modelMapperToEntity() {
+        return modelMapper.toEmitterType(emitterTypeRequest);
+    }
+
+    @Benchmark
+    public EmitterType generatedToEntity() {
+        return generatedMapper.toEmitterType(emitterTypeRequest);
+    }
+
+    private List<EmitterTypeResponse> toResponses(EmitterTypeMapper mapper) {
+        List<EmitterTypeResponse> responses = new ArrayList<>(emitterTypes.size());
+        for (EmitterType emitterType : emitterTypes)
+            responses.add(mapper.toEmitterTypeResponse(emitterType));
+
+        return responses;
+    }
+}
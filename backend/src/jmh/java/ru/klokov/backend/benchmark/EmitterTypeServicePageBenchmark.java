@@ -0,0 +1,110 @@
+package ru.klokov.backend.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ru.klokov.backend.BackendApplication;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.service.EmitterTypeService;
+
+/**
+ * {@link EmitterTypeService#getEmitterTypesPage} against an embedded H2 database in
+ * PostgreSQL mode, migrated by Flyway and seeded with {@code catalogSize} rows. The
+ * first and the last page are measured to show how OFFSET paging degrades with depth,
+ * and the first page is also measured with the maintained count instead of {@code count(*)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmitterTypeServicePageBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    @Param({ "1000", "10000", "100000" })
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private EmitterTypeService emitterTypeService;
+    private int lastPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.show-sql=false",
+                        "cache.invalidation.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        seed(context.getBean(JdbcTemplate.class));
+
+        emitterTypeService = context.getBean(EmitterTypeService.class);
+        lastPage = (catalogSize + PAGE_SIZE - 1) / PAGE_SIZE;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<EmitterType> firstPage() {
+        return emitterTypeService.getEmitterTypesPage(1, PAGE_SIZE, "id", true, true);
+    }
+
+    @Benchmark
+    public Page<EmitterType> lastPage() {
+        return emitterTypeService.getEmitterTypesPage(lastPage, PAGE_SIZE, "id", true, true);
+    }
+
+    @Benchmark
+    public Page<EmitterType> lastPageSortedByName() {
+        return emitterTypeService.getEmitterTypesPage(lastPage, PAGE_SIZE, "name", true, true);
+    }
+
+    @Benchmark
+    public Page<EmitterType> firstPageApproximateCount() {
+        return emitterTypeService.getEmitterTypesPage(1, PAGE_SIZE, "id", true, false);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+
+        for (int i = 1; i <= catalogSize; i++) {
+            batch.add(new Object[] { String.format("Type %07d", i) });
+
+            if (batch.size() == SEED_BATCH_SIZE || i == catalogSize) {
+                jdbcTemplate.batchUpdate("INSERT INTO emitter_type (type_name) VALUES (?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
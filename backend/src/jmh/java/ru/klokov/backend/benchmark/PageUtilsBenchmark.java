@@ -0,0 +1,67 @@
+package ru.klokov.backend.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ru.klokov.backend.exception.ParameterValidationException;
+import ru.klokov.backend.utils.PageUtils;
+
+/**
+ * Parsing of the paging query parameters, including the rejected-input path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageUtilsBenchmark {
+    private PageUtils pageUtils;
+
+    @Setup
+    public void setUp() {
+        pageUtils = new PageUtils();
+        ReflectionTestUtils.setField(pageUtils, "PAGE_NUMBER_DEFAULT_VALUE", 1);
+        ReflectionTestUtils.setField(pageUtils, "PAGE_SIZE_DEFAULT_VALUE", 5);
+        ReflectionTestUtils.setField(pageUtils, "PAGE_SIZE_MAX_VALUE", 100);
+        ReflectionTestUtils.setField(pageUtils, "PAGE_SORT_FIELD_DEFAULT_VALUE", "id");
+        ReflectionTestUtils.setField(pageUtils, "PAGE_SORT_FIELD_DIRECTION_DEFAULT_VALUE", true);
+    }
+
+    @Benchmark
+    public void parseDefaults(Blackhole blackhole) {
+        blackhole.consume(pageUtils.getPageNumber(null));
+        blackhole.consume(pageUtils.getPageSize(null));
+        blackhole.consume(pageUtils.getPageSortField(null));
+        blackhole.consume(pageUtils.getPageSortDirection(null));
+    }
+
+    @Benchmark
+    public void parseExplicitValues(Blackhole blackhole) {
+        blackhole.consume(pageUtils.getPageNumber("3"));
+        blackhole.consume(pageUtils.getPageSize("20"));
+        blackhole.consume(pageUtils.getPageSortField("name"));
+        blackhole.consume(pageUtils.getPageSortDirection("false"));
+    }
+
+    @Benchmark
+    public Object parseInvalidPageNumber() {
+        try {
+            return pageUtils.getPageNumber("abc");
+        } catch (ParameterValidationException e) {
+            return e;
+        }
+    }
+}
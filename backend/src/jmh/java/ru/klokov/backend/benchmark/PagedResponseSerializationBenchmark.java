@@ -0,0 +1,54 @@
+package ru.klokov.backend.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import ru.klokov.backend.dto.PagedResponse;
+import ru.klokov.backend.dto.emittertype.EmitterTypeResponse;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PagedResponseSerializationBenchmark {
+    @Param({ "5", "50", "500" })
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private PagedResponse<EmitterTypeResponse> response;
+
+    @Setup
+    public void setUp() {
+        writer = new ObjectMapper().writer();
+
+        List<EmitterTypeResponse> content = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++)
+            content.add(new EmitterTypeResponse(i, "Тип излучателя " + i));
+
+        response = new PagedResponse<>(1, 100, content);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+}
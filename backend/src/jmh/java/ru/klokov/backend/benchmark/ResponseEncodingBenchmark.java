@@ -0,0 +1,101 @@
+package ru.klokov.backend.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import ru.klokov.backend.dto.PagedResponse;
+import ru.klokov.backend.dto.emittertype.EmitterTypeResponse;
+
+/**
+ * Encode and decode cost of a {@link PagedResponse} page in every format offered
+ * through content negotiation, with and without gzip. Payload sizes are printed
+ * once per trial, since they do not depend on timing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+    @Param({ "json", "cbor", "smile" })
+    private String format;
+
+    @Param({ "5", "50", "500" })
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private PagedResponse<EmitterTypeResponse> response;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (format) {
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> new ObjectMapper();
+        };
+
+        writer = objectMapper.writer();
+        reader = objectMapper.readerFor(new TypeReference<PagedResponse<EmitterTypeResponse>>() {
+        });
+
+        List<EmitterTypeResponse> content = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++)
+            content.add(new EmitterTypeResponse(i, "Тип излучателя " + i));
+
+        response = new PagedResponse<>(1, 100, content);
+        encoded = writer.writeValueAsBytes(response);
+
+        System.out.printf("%n[payload] format=%s pageSize=%d raw=%d bytes gzip=%d bytes%n",
+                format, pageSize, encoded.length, gzip(encoded).length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] encodeGzip() throws IOException {
+        return gzip(writer.writeValueAsBytes(response));
+    }
+
+    @Benchmark
+    public PagedResponse<EmitterTypeResponse> decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(bytes);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,53 @@
+package ru.klokov.backend.benchmark;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+
+import ru.klokov.backend.exception.ServerException;
+
+/**
+ * Cost of building the not-found exception thrown by the service, measured at a
+ * realistic stack depth because stack trace capture grows with it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerExceptionBenchmark {
+    private static final int STACK_DEPTH = 64;
+
+    private long id = 42L;
+
+    @Benchmark
+    public ServerException notFoundException() {
+        return atDepth(STACK_DEPTH);
+    }
+
+    @Benchmark
+    public String notFoundMessage() {
+        return String.format("Тип излучателя с идентификатором %d не найден", id);
+    }
+
+    private ServerException atDepth(int depth) {
+        if (depth > 0)
+            return atDepth(depth - 1);
+
+        return new ServerException(
+                HttpStatus.NOT_FOUND,
+                String.format("Тип излучателя с идентификатором %d не найден", id),
+                Instant.now());
+    }
+}
@@ -0,0 +1,46 @@
+package ru.klokov.backend.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.validation.FieldError;
+
+import ru.klokov.backend.utils.ValidationUtils;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationUtilsBenchmark {
+    @Param({ "1", "2", "10" })
+    private int errorCount;
+
+    private List<FieldError> errors;
+
+    @Setup
+    public void setUp() {
+        errors = new ArrayList<>(errorCount);
+        for (int i = 0; i < errorCount; i++)
+            errors.add(new FieldError("emitterTypeRequest", i % 2 == 0 ? "name" : "field" + i, "Error " + i));
+    }
+
+    @Benchmark
+    public Map<String, List<String>> getErrorMessages() {
+        return ValidationUtils.getErrorMessages(errors);
+    }
+}
@@ -0,0 +1,136 @@
+package ru.klokov.backend.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Gradient concurrency limiter. It learns how many requests may be in flight from
+ * the ratio between a long-term and a short-term average of request latency.
+ * <p>
+ * While latency stays near its long-term baseline, the limit grows by roughly the
+ * square root of itself per sample. When queueing pushes short-term latency up,
+ * the limit shrinks in proportion. A failed request cuts the limit
+ * multiplicatively. Bulk requests may only use {@code bulkShare} of the limit, so
+ * interactive requests still get through when bulk traffic saturates the service.
+ * Only interactive requests feed the latency averages: the duration of a bulk
+ * request follows from its size, so mixing it in would read a large export as
+ * queueing and shrink the limit for everyone. A failed request of either class
+ * still backs the limit off.
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+    public enum Priority {
+        INTERACTIVE, BULK
+    }
+
+    private static final double SHORT_RTT_WEIGHT = 0.1;
+    private static final double LONG_RTT_WEIGHT = 1.0 / 600;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double bulkShare;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejectedInteractive = new LongAdder();
+    private final LongAdder rejectedBulk = new LongAdder();
+
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double bulkShare) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.bulkShare = bulkShare;
+    }
+
+    /**
+     * Reserves a slot for a request, or returns {@code -1} when the request must be
+     * rejected. Otherwise the returned value is the number of requests that were
+     * already in flight, and it must be passed back to {@link #release}.
+     */
+    public int tryAcquire(Priority priority) {
+        int allowed = getLimit();
+        if (priority == Priority.BULK)
+            allowed = Math.max(1, (int) (allowed * bulkShare));
+
+        while (true) {
+            int current = inFlight.get();
+
+            if (current >= allowed) {
+                (priority == Priority.BULK ? rejectedBulk : rejectedInteractive).increment();
+                return -1;
+            }
+
+            if (inFlight.compareAndSet(current, current + 1))
+                return current;
+        }
+    }
+
+    public void release(Priority priority, int inFlightAtStart, long rttNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+
+        if (dropped)
+            onDrop();
+        else if (priority == Priority.INTERACTIVE)
+            onSample(inFlightAtStart, rttNanos);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onDrop() {
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+    }
+
+    private synchronized void onSample(int inFlightAtStart, long rttNanos) {
+        double rtt = Math.max(1, rttNanos);
+        shortRtt = shortRtt == 0 ? rtt : shortRtt + (rtt - shortRtt) * SHORT_RTT_WEIGHT;
+        longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) * LONG_RTT_WEIGHT;
+
+        // After an overload the long-term average lags far behind; let it recover faster.
+        if (longRtt > 2 * shortRtt)
+            longRtt *= 0.95;
+
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+
+        // Do not grow the limit when demand, not capacity, keeps concurrency low.
+        if (newLimit > limit && inFlightAtStart + 1 < limit / 2)
+            return;
+
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("emitter.type.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("emitter.type.limiter.inflight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(registry);
+        FunctionCounter.builder("emitter.type.limiter.rejected", rejectedInteractive, LongAdder::sum)
+                .description("Requests rejected by the concurrency limiter")
+                .tag("priority", "interactive")
+                .register(registry);
+        FunctionCounter.builder("emitter.type.limiter.rejected", rejectedBulk, LongAdder::sum)
+                .description("Requests rejected by the concurrency limiter")
+                .tag("priority", "bulk")
+                .register(registry);
+    }
+}
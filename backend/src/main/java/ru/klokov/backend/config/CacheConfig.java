@@ -0,0 +1,58 @@
+package ru.klokov.backend.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * In-process cache for the emitter type catalog.
+ * <p>
+ * The caching advice is ordered outside of the transactional advice, so evictions
+ * are applied only after a mutation has been committed. Hit, miss and eviction
+ * statistics are recorded and published through the actuator {@code cache.*} metrics.
+ * Other instances evict their copies when notified by
+ * {@link ru.klokov.backend.service.implementation.EmitterTypeCacheInvalidationBus}.
+ * <p>
+ * Entries are loaded through
+ * {@link ru.klokov.backend.service.implementation.EmitterTypeCacheLoader}, which only
+ * takes them from a replica that has applied the revisions evicted for, so a miss
+ * right after an eviction never caches a stale copy. Requests pinned to the primary
+ * to read their own writes bypass the cache altogether, see {@link #NOT_PINNED_TO_PRIMARY}.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+    public static final String EMITTER_TYPES_CACHE = "emitterTypes";
+    public static final String EMITTER_TYPE_LISTS_CACHE = "emitterTypeLists";
+
+    /**
+     * Cache condition that skips the cache for requests pinned to the primary.
+     */
+    public static final String NOT_PINNED_TO_PRIMARY =
+            "!T(ru.klokov.backend.config.ReadWriteRoutingDataSource).isPinnedToPrimary()";
+
+    @Value("${cache.emitter-types.maximum-size}")
+    private long maximumSize;
+
+    @Value("${cache.emitter-types.expire-after-write}")
+    private Duration expireAfterWrite;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(EMITTER_TYPES_CACHE, EMITTER_TYPE_LISTS_CACHE);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
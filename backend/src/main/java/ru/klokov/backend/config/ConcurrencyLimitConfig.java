@@ -0,0 +1,48 @@
+package ru.klokov.backend.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Configuration
+@ConditionalOnProperty(name = "concurrency-limit.enabled", havingValue = "true")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ConcurrencyLimitConfig {
+    @Value("${concurrency-limit.initial-limit}")
+    private int initialLimit;
+
+    @Value("${concurrency-limit.min-limit}")
+    private int minLimit;
+
+    @Value("${concurrency-limit.max-limit}")
+    private int maxLimit;
+
+    @Value("${concurrency-limit.bulk-share}")
+    private double bulkShare;
+
+    @Value("${concurrency-limit.retry-after}")
+    private Duration retryAfter;
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter() {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, bulkShare);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter, ObjectMapper objectMapper) {
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(adaptiveConcurrencyLimiter, objectMapper, retryAfter));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,95 @@
+package ru.klokov.backend.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import ru.klokov.backend.config.AdaptiveConcurrencyLimiter.Priority;
+import ru.klokov.backend.dto.error.ServerErrorResponse;
+
+/**
+ * Admits emitter type API requests through an {@link AdaptiveConcurrencyLimiter}
+ * and answers the excess immediately with 503 and {@code Retry-After}. Full
+ * catalogue reads, exports and imports are classified as bulk traffic. A 5xx
+ * response or an exception counts as a dropped request.
+ * <p>
+ * The event stream is not limited. Its handler returns as soon as the stream is
+ * opened, so the slot would be released while the stream stays open for minutes,
+ * and that return time would be recorded as the latency of a request.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final String API_PREFIX = "/api/v1/types";
+    private static final String EVENTS_PATH = API_PREFIX + "/events";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final Duration retryAfter;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper, Duration retryAfter) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+
+        return !uri.startsWith(API_PREFIX) || uri.equals(EVENTS_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Priority priority = getPriority(request);
+        int inFlightAtStart = limiter.tryAcquire(priority);
+
+        if (inFlightAtStart < 0) {
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limiter.release(priority, inFlightAtStart, System.nanoTime() - start, dropped);
+        }
+    }
+
+    private static Priority getPriority(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(API_PREFIX.length());
+
+        if (path.equals("/all") || path.equals("/export") || path.equals("/bulk"))
+            return Priority.BULK;
+
+        return Priority.INTERACTIVE;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        objectMapper.writeValue(response.getOutputStream(), new ServerErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Сервер перегружен, повторите запрос позже",
+                Instant.now()));
+    }
+}
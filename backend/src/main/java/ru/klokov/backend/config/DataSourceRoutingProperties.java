@@ -0,0 +1,28 @@
+package ru.klokov.backend.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties("datasource.routing")
+public class DataSourceRoutingProperties {
+    private boolean enabled;
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
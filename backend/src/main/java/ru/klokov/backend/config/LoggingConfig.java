@@ -0,0 +1,21 @@
+package ru.klokov.backend.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "logging.sql.sample-rate")
+public class LoggingConfig {
+    @Value("${logging.sql.sample-rate}")
+    private double sqlSampleRate;
+
+    @Bean
+    public HibernatePropertiesCustomizer sampledSqlLoggingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new SampledSqlStatementInspector(sqlSampleRate));
+    }
+}
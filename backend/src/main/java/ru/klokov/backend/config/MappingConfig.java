@@ -0,0 +1,31 @@
+package ru.klokov.backend.config;
+
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ru.klokov.backend.mapper.EmitterTypeMapper;
+import ru.klokov.backend.mapper.GeneratedEmitterTypeMapper;
+import ru.klokov.backend.mapper.ModelMapperEmitterTypeMapper;
+
+/**
+ * Selects the {@link EmitterTypeMapper} implementation with the {@code mapping.engine}
+ * property: {@code mapstruct} (default) uses the compile-time generated mapper,
+ * {@code modelmapper} keeps the reflective ModelMapper path.
+ */
+@Configuration
+public class MappingConfig {
+    @Bean
+    @ConditionalOnProperty(name = "mapping.engine", havingValue = "mapstruct", matchIfMissing = true)
+    public EmitterTypeMapper generatedEmitterTypeMapper() {
+        return Mappers.getMapper(GeneratedEmitterTypeMapper.class);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "mapping.engine", havingValue = "modelmapper")
+    public EmitterTypeMapper modelMapperEmitterTypeMapper(ModelMapper modelMapper) {
+        return new ModelMapperEmitterTypeMapper(modelMapper);
+    }
+}
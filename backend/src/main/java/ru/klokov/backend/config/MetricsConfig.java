@@ -0,0 +1,36 @@
+package ru.klokov.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.common.annotation.ValueExpressionResolver;
+import io.micrometer.common.annotation.ValueResolver;
+import io.micrometer.core.aop.MeterTagAnnotationHandler;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Enables {@code @Timed} on service classes and {@code @MeterTag} on their
+ * parameters. Repository calls are timed by Spring Boot as
+ * {@code spring.data.repository.invocations}; HikariCP and Hibernate statistics
+ * are bound automatically.
+ */
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public MeterTagAnnotationHandler meterTagAnnotationHandler() {
+        ValueResolver toStringResolver = String::valueOf;
+        ValueExpressionResolver toStringExpressionResolver = (expression, parameter) -> String.valueOf(parameter);
+
+        return new MeterTagAnnotationHandler(
+                resolverClass -> toStringResolver,
+                expressionResolverClass -> toStringExpressionResolver);
+    }
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry, MeterTagAnnotationHandler meterTagAnnotationHandler) {
+        TimedAspect timedAspect = new TimedAspect(meterRegistry);
+        timedAspect.setMeterTagAnnotationHandler(meterTagAnnotationHandler);
+        return timedAspect;
+    }
+}
@@ -0,0 +1,132 @@
+package ru.klokov.backend.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Sends connections of read-only transactions to the replica with the fewest active
+ * connections and everything else to the primary.
+ * <p>
+ * The routing decision reads the transaction's read-only flag, which is only set
+ * after the transaction has begun. This data source must therefore be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the
+ * physical connection is obtained on the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final Map<String, DataSource> replicas = new HashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<? extends DataSource> replicas) {
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            replicaKeys.add(key);
+            this.replicas.put(key, replicas.get(i));
+            targetDataSources.put(key, replicas.get(i));
+        }
+
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Routes every connection obtained by the current thread to the primary until
+     * {@link #unpinFromPrimary()} is called.
+     */
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void unpinFromPrimary() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    /**
+     * Runs {@code action} with the current thread pinned to the primary. A pin that
+     * was already in place is kept afterwards.
+     */
+    public static <T> T callOnPrimary(Supplier<T> action) {
+        if (isPinnedToPrimary())
+            return action.get();
+
+        pinToPrimary();
+        try {
+            return action.get();
+        } finally {
+            unpinFromPrimary();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaKeys.isEmpty()
+                || PINNED_TO_PRIMARY.get() != null
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+            return PRIMARY;
+
+        return leastLoadedReplica();
+    }
+
+    /**
+     * Starts the scan at a rotating offset, so replicas with equal load are used in
+     * round-robin order.
+     */
+    private String leastLoadedReplica() {
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size());
+        String selected = null;
+        int minActiveConnections = Integer.MAX_VALUE;
+
+        for (int i = 0; i < replicaKeys.size(); i++) {
+            String key = replicaKeys.get((start + i) % replicaKeys.size());
+            int activeConnections = activeConnections(replicas.get(key));
+
+            if (activeConnections < minActiveConnections) {
+                minActiveConnections = activeConnections;
+                selected = key;
+            }
+        }
+
+        return selected;
+    }
+
+    private static int activeConnections(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikariDataSource && hikariDataSource.getHikariPoolMXBean() != null)
+            return hikariDataSource.getHikariPoolMXBean().getActiveConnections();
+
+        return 0;
+    }
+
+    /**
+     * Closes the replica pools. The primary is owned by its own bean.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof Closeable closeable)
+                closeable.close();
+        }
+    }
+}
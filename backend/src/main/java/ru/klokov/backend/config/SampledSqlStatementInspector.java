@@ -0,0 +1,28 @@
+package ru.klokov.backend.config;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Logs a random sample of the SQL statements issued by Hibernate through the
+ * regular logging pipeline, as a replacement for {@code show-sql} console output.
+ */
+@Slf4j(topic = "ru.klokov.backend.sql")
+public class SampledSqlStatementInspector implements StatementInspector {
+    private final double sampleRate;
+
+    public SampledSqlStatementInspector(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (log.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate)
+            log.info("Sampled SQL: {}", sql);
+
+        return sql;
+    }
+}
@@ -1,14 +1,21 @@
 package ru.klokov.backend.controller;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -18,44 +25,97 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import ru.klokov.backend.dto.CursorPagedResponse;
 import ru.klokov.backend.dto.PagedResponse;
+import ru.klokov.backend.dto.emittertype.EmitterTypeBatchResponse;
+import ru.klokov.backend.dto.emittertype.EmitterTypeChangesResponse;
+import ru.klokov.backend.dto.emittertype.EmitterTypeImportResponse;
 import ru.klokov.backend.dto.emittertype.EmitterTypeRequest;
 import ru.klokov.backend.dto.emittertype.EmitterTypeResponse;
 import ru.klokov.backend.exception.FormValidationException;
+import ru.klokov.backend.mapper.EmitterTypeMapper;
 import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.model.EmitterTypeChanges;
+import ru.klokov.backend.service.EmitterTypeImportService;
 import ru.klokov.backend.service.EmitterTypeService;
+import ru.klokov.backend.service.implementation.EmitterTypeEventStream;
+import ru.klokov.backend.utils.BatchUtils;
+import ru.klokov.backend.utils.ChangesUtils;
+import ru.klokov.backend.utils.CursorUtils;
+import ru.klokov.backend.utils.ETagUtils;
+import ru.klokov.backend.utils.EmitterTypeExportWriter;
+import ru.klokov.backend.utils.EventUtils;
+import ru.klokov.backend.utils.ExportFormat;
+import ru.klokov.backend.utils.ExportUtils;
 import ru.klokov.backend.utils.PageUtils;
+import ru.klokov.backend.utils.SearchUtils;
 import ru.klokov.backend.utils.ValidationUtils;
 
 @RestController
 @RequestMapping("/api/v1/types")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class EmitterTypeController {
 
     private final EmitterTypeService emitterTypeService;
-    private final ModelMapper mapper;
+    private final EmitterTypeImportService emitterTypeImportService;
+    private final EmitterTypeMapper mapper;
     private final PageUtils pageUtils;
+    private final ExportUtils exportUtils;
+    private final SearchUtils searchUtils;
+    private final BatchUtils batchUtils;
+    private final ChangesUtils changesUtils;
+    private final EmitterTypeEventStream emitterTypeEventStream;
 
     @GetMapping("/all")
-    public ResponseEntity<List<EmitterTypeResponse>> getAllEmitterTypes() {
-        return ResponseEntity.ok(emitterTypeService.getAllEmitterTypes()
+    public ResponseEntity<List<EmitterTypeResponse>> getAllEmitterTypes(WebRequest webRequest) {
+        List<EmitterType> emitterTypes = emitterTypeService.getAllEmitterTypes();
+
+        if (webRequest.checkNotModified(ETagUtils.getETag(emitterTypes), ETagUtils.getLastModified(emitterTypes)))
+            return null;
+
+        return ResponseEntity.ok(emitterTypes
                 .stream()
-                .map(emitterType -> mapper.map(emitterType, EmitterTypeResponse.class))
+                .map(mapper::toEmitterTypeResponse)
                 .collect(Collectors.toList()));
     }
 
+    @GetMapping("/export")
+    public void exportEmitterTypes(
+            @RequestParam(value = "format", required = false) String format,
+            HttpServletResponse response) throws IOException {
+
+        ExportFormat exportFormat = exportUtils.getExportFormat(format);
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                String.format("attachment; filename=\"emitter-types.%s\"", exportFormat.getExtension()));
+
+        try (EmitterTypeExportWriter writer = exportUtils.openWriter(exportFormat, response.getOutputStream())) {
+            emitterTypeService.exportEmitterTypes(
+                    emitterType -> writer.write(mapper.toEmitterTypeResponse(emitterType)));
+        }
+    }
+
     @GetMapping
     public ResponseEntity<PagedResponse<EmitterTypeResponse>> getAllEmitterTypesPageable(
             @RequestParam(value = "page", required = false) String page,
             @RequestParam(value = "size", required = false) String size,
             @RequestParam(value = "field", required = false) String field,
-            @RequestParam(value = "direction", required = false) String direction) {
+            @RequestParam(value = "direction", required = false) String direction,
+            @RequestParam(value = "count", required = false) String count) {
 
         List<EmitterTypeResponse> emitterTypesList = new ArrayList<>();
 
@@ -63,9 +123,10 @@ public class EmitterTypeController {
                 pageUtils.getPageNumber(page),
                 pageUtils.getPageSize(size),
                 pageUtils.getPageSortField(field),
-                pageUtils.getPageSortDirection(direction));
+                pageUtils.getPageSortDirection(direction),
+                pageUtils.isPageCountExact(count));
 
-        responsePage.forEach(emitterType -> emitterTypesList.add(mapper.map(emitterType, EmitterTypeResponse.class)));
+        responsePage.forEach(emitterType -> emitterTypesList.add(mapper.toEmitterTypeResponse(emitterType)));
 
         PagedResponse<EmitterTypeResponse> response = new PagedResponse<>(
                 responsePage.getNumber(),
@@ -75,9 +136,94 @@ public class EmitterTypeController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<EmitterTypeResponse>> searchEmitterTypes(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "limit", required = false) String limit) {
+
+        return ResponseEntity.ok(emitterTypeService.searchEmitterTypes(
+                searchUtils.getSearchQuery(query),
+                searchUtils.getSearchLimit(limit))
+                .stream()
+                .map(mapper::toEmitterTypeResponse)
+                .collect(Collectors.toList()));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPagedResponse<EmitterTypeResponse>> getEmitterTypesScroll(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) String size,
+            @RequestParam(value = "field", required = false) String field,
+            @RequestParam(value = "direction", required = false) String direction) {
+
+        String sortField = pageUtils.getPageSortField(field);
+
+        Window<EmitterType> window = emitterTypeService.getEmitterTypesWindow(
+                CursorUtils.decode(cursor, sortField),
+                pageUtils.getPageSize(size),
+                sortField,
+                pageUtils.getPageSortDirection(direction));
+
+        List<EmitterTypeResponse> emitterTypesList = window.stream()
+                .map(mapper::toEmitterTypeResponse)
+                .collect(Collectors.toList());
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? CursorUtils.encode(window.positionAt(window.size() - 1))
+                : null;
+
+        return ResponseEntity.ok(new CursorPagedResponse<>(emitterTypesList, nextCursor, window.hasNext()));
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEmitterTypeEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "since", required = false) String since) {
+
+        return emitterTypeEventStream.subscribe(EventUtils.getLastSequenceNumber(lastEventId, since));
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<EmitterTypeChangesResponse> getEmitterTypeChanges(
+            @RequestParam(value = "since", required = false) String since,
+            @RequestParam(value = "limit", required = false) String limit) {
+
+        EmitterTypeChanges changes = emitterTypeService.getEmitterTypeChanges(
+                changesUtils.getRevision(since),
+                changesUtils.getChangesLimit(limit));
+
+        return ResponseEntity.ok(new EmitterTypeChangesResponse(
+                changes.getRevision(),
+                changes.isResyncRequired(),
+                changes.isHasMore(),
+                changes.getChanged().stream().map(mapper::toEmitterTypeResponse).collect(Collectors.toList()),
+                changes.getDeleted()));
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<EmitterTypeBatchResponse> getEmitterTypesByIds(
+            @RequestParam(value = "ids", required = false) String ids) {
+
+        List<Long> requestedIds = batchUtils.getIds(ids);
+        List<EmitterType> emitterTypes = emitterTypeService.getEmitterTypesByIds(requestedIds);
+
+        Set<Long> foundIds = emitterTypes.stream().map(EmitterType::getId).collect(Collectors.toSet());
+
+        return ResponseEntity.ok(new EmitterTypeBatchResponse(
+                emitterTypes.stream().map(mapper::toEmitterTypeResponse).collect(Collectors.toList()),
+                requestedIds.stream().filter(id -> !foundIds.contains(id)).collect(Collectors.toList())));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<EmitterTypeResponse> getEmitterTypeById(@PathVariable("id") Long id) {
-        return ResponseEntity.ok(mapper.map(emitterTypeService.getEmitterTypeById(id), EmitterTypeResponse.class));
+    public ResponseEntity<EmitterTypeResponse> getEmitterTypeById(@PathVariable("id") Long id,
+            WebRequest webRequest) {
+
+        EmitterType emitterType = emitterTypeService.getEmitterTypeById(id);
+
+        if (webRequest.checkNotModified(ETagUtils.getETag(emitterType), ETagUtils.getLastModified(emitterType)))
+            return null;
+
+        return ResponseEntity.ok(mapper.toEmitterTypeResponse(emitterType));
     }
 
     @PostMapping
@@ -93,14 +239,30 @@ public class EmitterTypeController {
         }
 
         EmitterType emitterType = emitterTypeService
-                .createEmitterType(mapper.map(emitterTypeRequest, EmitterType.class));
+                .createEmitterType(mapper.toEmitterType(emitterTypeRequest));
+
+        return new ResponseEntity<>(mapper.toEmitterTypeResponse(emitterType), HttpStatus.CREATED);
+
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EmitterTypeImportResponse> importEmitterTypes(HttpServletRequest request)
+            throws IOException {
+
+        return ResponseEntity.ok(emitterTypeImportService.importEmitterTypes(request.getInputStream()));
+    }
 
-        return new ResponseEntity<>(mapper.map(emitterType, EmitterTypeResponse.class), HttpStatus.CREATED);
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<EmitterTypeImportResponse> importEmitterTypesCsv(HttpServletRequest request)
+            throws IOException {
 
+        return ResponseEntity.ok(emitterTypeImportService.importEmitterTypes(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<EmitterTypeResponse> editEmitterType(@PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid EmitterTypeRequest emitterTypeRequest,
             BindingResult bindingResult) {
 
@@ -111,16 +273,24 @@ public class EmitterTypeController {
             throw new FormValidationException(HttpStatus.BAD_REQUEST, errorMessages, Instant.now());
         }
 
-        EmitterType emitterTypeToUpdate = mapper.map(emitterTypeRequest, EmitterType.class);
+        EmitterType emitterTypeToUpdate = mapper.toEmitterType(emitterTypeRequest);
+
+        EmitterType updatedEmitterType = emitterTypeService.updateEmitterType(
+                id, emitterTypeToUpdate, ETagUtils.getExpectedVersion(ifMatch));
 
-        EmitterType updatedEmitterType = emitterTypeService.updateEmitterType(id, emitterTypeToUpdate);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        String eTag = ETagUtils.getETag(updatedEmitterType);
+        if (eTag != null)
+            response.eTag(eTag);
 
-        return ResponseEntity.ok(mapper.map(updatedEmitterType, EmitterTypeResponse.class));
+        return response.body(mapper.toEmitterTypeResponse(updatedEmitterType));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> deleteEmitterType(@PathVariable("id") Long id) {
-        emitterTypeService.deleteEmitterType(id);
+    public ResponseEntity<String> deleteEmitterType(@PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        emitterTypeService.deleteEmitterType(id, ETagUtils.getExpectedVersion(ifMatch));
         return ResponseEntity.ok(String.format("Тип излучателя с идентификатором %d успешно удален", id));
     }
 }
@@ -0,0 +1,16 @@
+package ru.klokov.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPagedResponse<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
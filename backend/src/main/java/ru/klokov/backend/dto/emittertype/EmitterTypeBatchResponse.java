@@ -0,0 +1,17 @@
+package ru.klokov.backend.dto.emittertype;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmitterTypeBatchResponse {
+    private List<EmitterTypeResponse> content;
+    private List<Long> missing;
+}
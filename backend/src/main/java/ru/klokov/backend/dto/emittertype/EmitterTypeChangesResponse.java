@@ -0,0 +1,20 @@
+package ru.klokov.backend.dto.emittertype;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmitterTypeChangesResponse {
+    private Long revision;
+    private Boolean resyncRequired;
+    private Boolean hasMore;
+    private List<EmitterTypeResponse> changed;
+    private List<Long> deleted;
+}
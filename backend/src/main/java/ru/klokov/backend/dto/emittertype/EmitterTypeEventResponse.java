@@ -0,0 +1,22 @@
+package ru.klokov.backend.dto.emittertype;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.klokov.backend.model.EmitterTypeEventType;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmitterTypeEventResponse {
+    private Long sequenceNumber;
+    private EmitterTypeEventType type;
+    private Long emitterTypeId;
+    private String name;
+    private Long version;
+    private Instant createdAt;
+}
@@ -0,0 +1,20 @@
+package ru.klokov.backend.dto.emittertype;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmitterTypeImportResponse {
+    private int total;
+    private int created;
+    private int duplicates;
+    private int invalid;
+    private List<EmitterTypeImportRowResult> rows;
+}
@@ -0,0 +1,19 @@
+package ru.klokov.backend.dto.emittertype;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmitterTypeImportRowResult {
+    private int row;
+    private String name;
+    private EmitterTypeImportStatus status;
+    private List<String> errors;
+}
@@ -0,0 +1,7 @@
+package ru.klokov.backend.dto.emittertype;
+
+public enum EmitterTypeImportStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID
+}
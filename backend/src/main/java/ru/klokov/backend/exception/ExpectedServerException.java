@@ -0,0 +1,20 @@
+package ru.klokov.backend.exception;
+
+import java.time.Instant;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Server exception for expected outcomes such as a missing or an already existing
+ * emitter type. It carries no stack trace and no suppressed exceptions, so throwing
+ * it costs about as much as allocating the message.
+ */
+public class ExpectedServerException extends ServerException {
+    public ExpectedServerException(HttpStatus status, String message, Instant timestamp) {
+        super(status, message, timestamp, false);
+    }
+
+    public ExpectedServerException(HttpStatus status, String message) {
+        super(status, message, Instant.now(), false);
+    }
+}
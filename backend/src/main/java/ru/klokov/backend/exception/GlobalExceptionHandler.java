@@ -1,5 +1,7 @@
 package ru.klokov.backend.exception;
 
+import java.time.Duration;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -8,10 +10,13 @@ import lombok.extern.slf4j.Slf4j;
 import ru.klokov.backend.dto.error.FormValidationErrorResponse;
 import ru.klokov.backend.dto.error.ParameterValidationErrorResponse;
 import ru.klokov.backend.dto.error.ServerErrorResponse;
+import ru.klokov.backend.utils.LogRateLimiter;
 
 @ControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
+        private final LogRateLimiter expectedErrorLogLimiter = new LogRateLimiter(10, Duration.ofSeconds(1));
+
         @ExceptionHandler({ ParameterValidationException.class })
         protected ResponseEntity<ParameterValidationErrorResponse> handleParameterValidationException(
                         ParameterValidationException exception) {
@@ -39,6 +44,24 @@ public class GlobalExceptionHandler {
                                 exception.getStatus());
         }
 
+        @ExceptionHandler({ ExpectedServerException.class })
+        protected ResponseEntity<ServerErrorResponse> handleExpectedServerException(ExpectedServerException exception) {
+
+                if (expectedErrorLogLimiter.tryAcquire()) {
+                        log.info("Expected server error: {} (suppressed since last report: {})",
+                                        exception.getMessage(), expectedErrorLogLimiter.drainSuppressed());
+                } else {
+                        log.debug("Expected server error: {}", exception.getMessage());
+                }
+
+                return new ResponseEntity<>(
+                                new ServerErrorResponse(
+                                                exception.getStatus().value(),
+                                                exception.getMessage(),
+                                                exception.getTimestamp()),
+                                exception.getStatus());
+        }
+
         @ExceptionHandler({ ServerException.class })
         protected ResponseEntity<ServerErrorResponse> handleServerException(ServerException exception) {
 
@@ -27,4 +27,10 @@ public class ServerException extends RuntimeException {
         this.status = status;
         this.timestamp = Instant.now();
     }
+
+    protected ServerException(HttpStatus status, String message, Instant timestamp, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.status = status;
+        this.timestamp = timestamp;
+    }
 }
@@ -0,0 +1,15 @@
+package ru.klokov.backend.mapper;
+
+import ru.klokov.backend.dto.emittertype.EmitterTypeEventResponse;
+import ru.klokov.backend.dto.emittertype.EmitterTypeRequest;
+import ru.klokov.backend.dto.emittertype.EmitterTypeResponse;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.model.EmitterTypeEvent;
+
+public interface EmitterTypeMapper {
+    EmitterType toEmitterType(EmitterTypeRequest emitterTypeRequest);
+
+    EmitterTypeResponse toEmitterTypeResponse(EmitterType emitterType);
+
+    EmitterTypeEventResponse toEmitterTypeEventResponse(EmitterTypeEvent emitterTypeEvent);
+}
@@ -0,0 +1,11 @@
+package ru.klokov.backend.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Reflection-free mapper, implemented by MapStruct at compile time.
+ */
+@Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface GeneratedEmitterTypeMapper extends EmitterTypeMapper {
+}
@@ -0,0 +1,30 @@
+package ru.klokov.backend.mapper;
+
+import org.modelmapper.ModelMapper;
+
+import lombok.RequiredArgsConstructor;
+import ru.klokov.backend.dto.emittertype.EmitterTypeEventResponse;
+import ru.klokov.backend.dto.emittertype.EmitterTypeRequest;
+import ru.klokov.backend.dto.emittertype.EmitterTypeResponse;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.model.EmitterTypeEvent;
+
+@RequiredArgsConstructor
+public class ModelMapperEmitterTypeMapper implements EmitterTypeMapper {
+    private final ModelMapper modelMapper;
+
+    @Override
+    public EmitterType toEmitterType(EmitterTypeRequest emitterTypeRequest) {
+        return modelMapper.map(emitterTypeRequest, EmitterType.class);
+    }
+
+    @Override
+    public EmitterTypeResponse toEmitterTypeResponse(EmitterType emitterType) {
+        return modelMapper.map(emitterType, EmitterTypeResponse.class);
+    }
+
+    @Override
+    public EmitterTypeEventResponse toEmitterTypeEventResponse(EmitterTypeEvent emitterTypeEvent) {
+        return modelMapper.map(emitterTypeEvent, EmitterTypeEventResponse.class);
+    }
+}
@@ -1,11 +1,16 @@
 package ru.klokov.backend.model;
 
+import java.time.Instant;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -27,4 +32,19 @@ public class EmitterType {
 
     @Column(name = "type_name", nullable = false, unique = true)
     private String name;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /**
+     * Revision of the last change, taken from the event sequence. Rows written
+     * outside of {@code DefaultEmitterTypeService} keep {@code 0}.
+     */
+    @Column(name = "revision", nullable = false)
+    private long revision;
 }
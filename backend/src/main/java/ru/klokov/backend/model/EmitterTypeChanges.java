@@ -0,0 +1,23 @@
+package ru.klokov.backend.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Emitter types changed after a revision. {@code revision} is the one to ask from
+ * next; with {@code resyncRequired} the changes are empty because tombstones the
+ * client still needed have been compacted.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class EmitterTypeChanges {
+    private final long revision;
+    private final boolean resyncRequired;
+    private final boolean hasMore;
+    private final List<EmitterType> changed;
+    private final List<Long> deleted;
+}
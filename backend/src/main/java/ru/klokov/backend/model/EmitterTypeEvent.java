@@ -0,0 +1,67 @@
+package ru.klokov.backend.model;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Outbox record of one emitter type mutation. Sequence numbers are the revisions
+ * assigned by {@code emitter_type_event_sequence} without gaps and in commit order.
+ */
+@Entity
+@Table(name = "emitter_type_event")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class EmitterTypeEvent implements Persistable<Long> {
+    @Id
+    @Column(name = "sequence_number")
+    private Long sequenceNumber;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "event_type", nullable = false, length = 16)
+    private EmitterTypeEventType type;
+
+    @Column(name = "emitter_type_id", nullable = false)
+    private Long emitterTypeId;
+
+    @Column(name = "type_name")
+    private String name;
+
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Override
+    public Long getId() {
+        return sequenceNumber;
+    }
+
+    /**
+     * Events are only ever appended, so saving one never has to look for an
+     * existing row first.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.klokov.backend.model;
+
+public enum EmitterTypeEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,50 @@
+package ru.klokov.backend.model;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Marks a deleted emitter type for delta synchronization until it is compacted.
+ */
+@Entity
+@Table(name = "emitter_type_tombstone")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class EmitterTypeTombstone implements Persistable<Long> {
+    @Id
+    @Column(name = "emitter_type_id")
+    private Long emitterTypeId;
+
+    @Column(name = "revision", nullable = false)
+    private long revision;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    @Override
+    public Long getId() {
+        return emitterTypeId;
+    }
+
+    /**
+     * Ids are never reused, so an emitter type is deleted at most once.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.klokov.backend.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import ru.klokov.backend.model.EmitterTypeEvent;
+
+@Repository
+public interface EmitterTypeEventRepository extends JpaRepository<EmitterTypeEvent, Long> {
+    List<EmitterTypeEvent> findBySequenceNumberGreaterThanOrderBySequenceNumber(long sequenceNumber, Limit limit);
+
+    /**
+     * Moves the sequence forward by {@code count}. The row stays locked until the
+     * calling transaction ends, so concurrent writers commit their events in
+     * sequence order and a reader never sees a later event before an earlier one.
+     */
+    @Modifying
+    @Query(value = "UPDATE emitter_type_event_sequence SET last_sequence_number = last_sequence_number + :count",
+            nativeQuery = true)
+    int reserveSequenceNumbers(@Param("count") int count);
+
+    @Query(value = "SELECT last_sequence_number FROM emitter_type_event_sequence", nativeQuery = true)
+    Long findLastSequenceNumber();
+
+    /**
+     * Locks the sequence row without moving it; the lock is held until the calling
+     * transaction ends, like the one taken by {@link #reserveSequenceNumbers(int)}.
+     */
+    @Query(value = "SELECT last_sequence_number FROM emitter_type_event_sequence FOR UPDATE", nativeQuery = true)
+    Long lockSequence();
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from EmitterTypeEvent e where e.createdAt < :createdAt")
+    int removeByCreatedAtBefore(@Param("createdAt") Instant createdAt);
+}
@@ -1,11 +1,71 @@
 package ru.klokov.backend.repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 import ru.klokov.backend.model.EmitterType;
 
 @Repository
-public interface EmitterTypeRepository extends JpaRepository<EmitterType, Long> {
+public interface EmitterTypeRepository extends JpaRepository<EmitterType, Long>, EmitterTypeRepositoryCustom {
+    Window<EmitterType> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Same page as {@code findAll(Pageable)} without the {@code count(*)} query.
+     */
+    Slice<EmitterType> findSliceBy(Pageable pageable);
+
+    List<EmitterType> findByNameInOrderById(List<String> names);
+
+    @Query("select e from EmitterType e order by e.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    Stream<EmitterType> streamAllBy();
+
+    /**
+     * Matches {@code pattern} against the lower-cased name, which is what the
+     * trigram and prefix indexes are built on, and ranks exact matches first, then
+     * prefix matches, then shorter names. Patterns use {@code !} as escape character.
+     */
+    @Query("""
+            select e from EmitterType e
+            where lower(e.name) like :pattern escape '!'
+            order by
+                case
+                    when lower(e.name) = :query then 0
+                    when lower(e.name) like :prefix escape '!' then 1
+                    else 2
+                end,
+                length(e.name),
+                e.name
+            """)
+    List<EmitterType> searchByName(@Param("query") String query, @Param("pattern") String pattern,
+            @Param("prefix") String prefix, Limit limit);
+
+    @Query("select e from EmitterType e where e.revision > :since and e.revision <= :until order by e.revision")
+    List<EmitterType> findChanges(@Param("since") long since, @Param("until") long until, Limit limit);
+
+    @Modifying
+    @Query("delete from EmitterType e where e.id = :id")
+    int removeById(@Param("id") Long id);
 
+    @Modifying
+    @Query("delete from EmitterType e where e.id = :id and e.version = :version")
+    int removeByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
 }
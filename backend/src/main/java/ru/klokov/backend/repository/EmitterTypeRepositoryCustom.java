@@ -0,0 +1,21 @@
+package ru.klokov.backend.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+
+import ru.klokov.backend.model.EmitterType;
+
+public interface EmitterTypeRepositoryCustom {
+    int[] insertAllIgnoringDuplicates(List<String> names);
+
+    void updateRevisions(List<Long> ids, long firstRevision);
+
+    Optional<EmitterType> updateName(Long id, Long expectedVersion, String name, Instant updatedAt, long revision);
+
+    Window<EmitterType> scrollByLowerName(KeysetScrollPosition position, boolean ascending, Limit limit);
+}
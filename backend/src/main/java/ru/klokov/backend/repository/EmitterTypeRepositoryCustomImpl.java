@@ -0,0 +1,162 @@
+package ru.klokov.backend.repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import ru.klokov.backend.model.EmitterType;
+
+@RequiredArgsConstructor
+public class EmitterTypeRepositoryCustomImpl implements EmitterTypeRepositoryCustom {
+    private static final String INSERT_IGNORING_DUPLICATES_SQL = "INSERT INTO emitter_type (type_name) VALUES (?) "
+            + "ON CONFLICT (type_name) DO NOTHING";
+    private static final String UPDATE_REVISION_SQL = "UPDATE emitter_type SET revision = ? WHERE id = ?";
+    private static final String UPDATE_NAME_SQL = "UPDATE emitter_type SET type_name = :name, "
+            + "version = version + 1, updated_at = :updatedAt, revision = :revision WHERE id = :id";
+    private static final String VERSION_CONDITION_SQL = " AND version = :version";
+    private static final String SCROLL_BY_LOWER_NAME_JPQL = "select e, lower(e.name) from EmitterType e";
+    private static final String LOWER_NAME_SEEK_JPQL = " where lower(e.name) %1$s= :name "
+            + "and (lower(e.name) %1$s :name or e.id %1$s :id)";
+    private static final String LOWER_NAME_ORDER_JPQL = " order by lower(e.name) %1$s, e.id %1$s";
+    private static final String NAME_KEY = "name";
+    private static final String ID_KEY = "id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    /**
+     * Inserts all names in a single JDBC batch. Rows whose name already exists are
+     * skipped by the database instead of failing the batch; the returned array holds
+     * the update count of every row, {@code 1} for inserted and {@code 0} for skipped.
+     */
+    @Override
+    public int[] insertAllIgnoringDuplicates(List<String> names) {
+        if (names.isEmpty())
+            return new int[0];
+
+        return jdbcTemplate.batchUpdate(INSERT_IGNORING_DUPLICATES_SQL, names, names.size(),
+                (statement, name) -> statement.setString(1, name))[0];
+    }
+
+    /**
+     * Stamps the rows with consecutive revisions starting at {@code firstRevision},
+     * in the order of {@code ids}, with a single JDBC batch.
+     */
+    @Override
+    public void updateRevisions(List<Long> ids, long firstRevision) {
+        if (ids.isEmpty())
+            return;
+
+        List<Object[]> batch = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++)
+            batch.add(new Object[] { firstRevision + i, ids.get(i) });
+
+        jdbcTemplate.batchUpdate(UPDATE_REVISION_SQL, batch);
+    }
+
+    /**
+     * Renames the row and reads back the version and timestamp the database stored
+     * in the same statement, {@code UPDATE ... RETURNING} on PostgreSQL and a
+     * {@code FINAL TABLE} query on the embedded H2 the tests run on. Unlike values
+     * computed by the caller they match what later reads return, timestamp precision
+     * included. Empty if no row has the id, or the expected version when one is given.
+     */
+    @Override
+    public Optional<EmitterType> updateName(Long id, Long expectedVersion, String name, Instant updatedAt,
+            long revision) {
+
+        String update = expectedVersion == null ? UPDATE_NAME_SQL : UPDATE_NAME_SQL + VERSION_CONDITION_SQL;
+        String sql = isH2()
+                ? "SELECT version, updated_at FROM FINAL TABLE (" + update + ")"
+                : update + " RETURNING version, updated_at";
+
+        NativeQuery<?> query = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addScalar("version", Long.class)
+                .addScalar("updated_at", Instant.class)
+                .addSynchronizedEntityClass(EmitterType.class)
+                .setParameter("id", id)
+                .setParameter("name", name)
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("revision", revision);
+
+        if (expectedVersion != null)
+            query.setParameter("version", expectedVersion);
+
+        List<?> rows = query.getResultList();
+
+        return rows.stream()
+                .map(Object[].class::cast)
+                .findFirst()
+                .map(row -> EmitterType.builder()
+                        .id(id)
+                        .name(name)
+                        .version((Long) row[0])
+                        .updatedAt((Instant) row[1])
+                        .revision(revision)
+                        .build());
+    }
+
+    /**
+     * Scrolls by {@code lower(name), id}, the order of the sort index. Spring Data's
+     * keyset scrolling would compare the raw name while ordering by the lowered one,
+     * skipping or repeating rows whose names differ in case. The position therefore
+     * holds the name as lowered by the database, read along with every row, so the
+     * seek compares exactly what the query is ordered by. The first condition bounds
+     * the index range, the second one excludes the rows already returned.
+     */
+    @Override
+    public Window<EmitterType> scrollByLowerName(KeysetScrollPosition position, boolean ascending, Limit limit) {
+        String comparison = ascending ? ">" : "<";
+        String jpql = SCROLL_BY_LOWER_NAME_JPQL
+                + (position.isInitial() ? "" : String.format(LOWER_NAME_SEEK_JPQL, comparison))
+                + String.format(LOWER_NAME_ORDER_JPQL, ascending ? "asc" : "desc");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class)
+                .setMaxResults(limit.max() + 1);
+
+        if (!position.isInitial()) {
+            query.setParameter("name", position.getKeys().get(NAME_KEY));
+            query.setParameter("id", position.getKeys().get(ID_KEY));
+        }
+
+        List<Object[]> rows = query.getResultList();
+        boolean hasNext = rows.size() > limit.max();
+        List<Object[]> windowRows = hasNext ? rows.subList(0, limit.max()) : rows;
+
+        return Window.from(
+                windowRows.stream().map(row -> (EmitterType) row[0]).toList(),
+                index -> positionOf(windowRows.get(index)),
+                hasNext);
+    }
+
+    private static ScrollPosition positionOf(Object[] row) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(NAME_KEY, row[1]);
+        keys.put(ID_KEY, ((EmitterType) row[0]).getId());
+
+        return ScrollPosition.forward(keys);
+    }
+
+    private boolean isH2() {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof H2Dialect;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.klokov.backend.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import ru.klokov.backend.model.EmitterTypeTombstone;
+
+@Repository
+public interface EmitterTypeTombstoneRepository extends JpaRepository<EmitterTypeTombstone, Long> {
+    @Query("select t from EmitterTypeTombstone t where t.revision > :since and t.revision <= :until order by t.revision")
+    List<EmitterTypeTombstone> findChanges(@Param("since") long since, @Param("until") long until, Limit limit);
+
+    @Query("select max(t.revision) from EmitterTypeTombstone t where t.deletedAt < :deletedAt")
+    Long findMaxRevisionByDeletedAtBefore(@Param("deletedAt") Instant deletedAt);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from EmitterTypeTombstone t where t.revision <= :revision")
+    int removeByRevisionLessThanEqual(@Param("revision") long revision);
+
+    @Query(value = "SELECT compacted_revision FROM emitter_type_event_sequence", nativeQuery = true)
+    Long findCompactedRevision();
+
+    @Modifying
+    @Query(value = "UPDATE emitter_type_event_sequence SET compacted_revision = :revision "
+            + "WHERE compacted_revision < :revision", nativeQuery = true)
+    int updateCompactedRevision(@Param("revision") long revision);
+}
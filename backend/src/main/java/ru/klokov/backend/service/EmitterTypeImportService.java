@@ -0,0 +1,12 @@
+package ru.klokov.backend.service;
+
+import java.io.InputStream;
+import java.io.Reader;
+
+import ru.klokov.backend.dto.emittertype.EmitterTypeImportResponse;
+
+public interface EmitterTypeImportService {
+    EmitterTypeImportResponse importEmitterTypes(InputStream jsonStream);
+
+    EmitterTypeImportResponse importEmitterTypes(Reader csvReader);
+}
@@ -1,21 +1,38 @@
 package ru.klokov.backend.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.model.EmitterTypeChanges;
 
 public interface EmitterTypeService {
     List<EmitterType> getAllEmitterTypes();
 
+    void exportEmitterTypes(Consumer<EmitterType> consumer);
+
     EmitterType getEmitterTypeById(Long id);
 
-    Page<EmitterType> getEmitterTypesPage(int pageNumber, int pageSize, String sortField, boolean sortAsc);
+    List<EmitterType> getEmitterTypesByIds(List<Long> ids);
+
+    Page<EmitterType> getEmitterTypesPage(int pageNumber, int pageSize, String sortField, boolean sortAsc,
+            boolean exactCount);
+
+    List<EmitterType> searchEmitterTypes(String query, int limit);
+
+    Window<EmitterType> getEmitterTypesWindow(ScrollPosition position, int pageSize, String sortField, boolean sortAsc);
+
+    EmitterTypeChanges getEmitterTypeChanges(long since, int limit);
 
     EmitterType createEmitterType(EmitterType emitterType);
 
-    EmitterType updateEmitterType(Long id, EmitterType emitterType);
+    List<Boolean> createEmitterTypes(List<EmitterType> emitterTypes);
+
+    EmitterType updateEmitterType(Long id, EmitterType emitterType, Long expectedVersion);
 
-    void deleteEmitterType(Long id);
+    void deleteEmitterType(Long id, Long expectedVersion);
 }
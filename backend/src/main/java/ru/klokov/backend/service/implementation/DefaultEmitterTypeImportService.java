@@ -0,0 +1,218 @@
+package ru.klokov.backend.service.implementation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.klokov.backend.dto.emittertype.EmitterTypeImportResponse;
+import ru.klokov.backend.dto.emittertype.EmitterTypeImportRowResult;
+import ru.klokov.backend.dto.emittertype.EmitterTypeImportStatus;
+import ru.klokov.backend.dto.emittertype.EmitterTypeRequest;
+import ru.klokov.backend.exception.ExpectedServerException;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.service.EmitterTypeImportService;
+import ru.klokov.backend.service.EmitterTypeService;
+
+/**
+ * Imports emitter types in chunks of {@code import.batch-size} rows. Every chunk is
+ * validated against the {@link EmitterTypeRequest} constraints and inserted with a
+ * single JDBC batch. Both JSON and CSV bodies are read as a stream, so neither is
+ * ever held in memory as a whole.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DefaultEmitterTypeImportService implements EmitterTypeImportService {
+    private static final String CSV_NAME_COLUMN = "name";
+
+    /**
+     * Reads RFC 4180 records, so quoted fields may contain commas, quotes and line
+     * breaks, as written by the CSV export.
+     */
+    private static final ObjectReader CSV_READER = CsvMapper.builder()
+            .enable(CsvParser.Feature.WRAP_AS_ARRAY)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .build()
+            .readerForListOf(String.class);
+
+    private final EmitterTypeService emitterTypeService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${import.batch-size}")
+    private int IMPORT_BATCH_SIZE;
+
+    /**
+     * Reads the elements of a JSON array one at a time. Chunks read before a
+     * malformed element are already imported when the request is rejected.
+     */
+    @Override
+    public EmitterTypeImportResponse importEmitterTypes(InputStream jsonStream) {
+        log.info("Method importEmitterTypes executed with JSON body");
+
+        EmitterTypeImportResponse response = newResponse();
+        List<EmitterTypeRequest> chunk = new ArrayList<>(IMPORT_BATCH_SIZE);
+        int firstRowOfChunk = 1;
+
+        try (JsonParser parser = objectMapper.createParser(jsonStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY)
+                throw invalidFormat();
+
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() == null)
+                    throw invalidFormat();
+
+                chunk.add(objectMapper.readValue(parser, EmitterTypeRequest.class));
+
+                if (chunk.size() == IMPORT_BATCH_SIZE) {
+                    importChunk(chunk, firstRowOfChunk, response);
+                    firstRowOfChunk += chunk.size();
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw invalidFormat();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        importChunk(chunk, firstRowOfChunk, response);
+
+        return response;
+    }
+
+    @Override
+    public EmitterTypeImportResponse importEmitterTypes(Reader csvReader) {
+        log.info("Method importEmitterTypes executed with CSV body");
+
+        EmitterTypeImportResponse response = newResponse();
+        List<EmitterTypeRequest> chunk = new ArrayList<>(IMPORT_BATCH_SIZE);
+        int nameColumn = 0;
+        int firstRowOfChunk = 1;
+        boolean firstLine = true;
+
+        try (MappingIterator<List<String>> rows = CSV_READER.readValues(csvReader)) {
+            while (rows.hasNextValue()) {
+                List<String> fields = rows.nextValue();
+
+                if (firstLine) {
+                    firstLine = false;
+                    int headerColumn = indexOfIgnoreCase(fields, CSV_NAME_COLUMN);
+                    if (headerColumn >= 0) {
+                        nameColumn = headerColumn;
+                        continue;
+                    }
+                }
+
+                String name = nameColumn < fields.size() ? fields.get(nameColumn) : null;
+                chunk.add(EmitterTypeRequest.builder().name(name).build());
+
+                if (chunk.size() == IMPORT_BATCH_SIZE) {
+                    importChunk(chunk, firstRowOfChunk, response);
+                    firstRowOfChunk += chunk.size();
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw invalidFormat();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        importChunk(chunk, firstRowOfChunk, response);
+
+        return response;
+    }
+
+    private void importChunk(List<EmitterTypeRequest> chunk, int firstRow, EmitterTypeImportResponse response) {
+        if (chunk.isEmpty())
+            return;
+
+        List<EmitterTypeImportRowResult> results = new ArrayList<>(chunk.size());
+        List<EmitterTypeImportRowResult> validResults = new ArrayList<>(chunk.size());
+        List<EmitterType> validEmitterTypes = new ArrayList<>(chunk.size());
+
+        for (int i = 0; i < chunk.size(); i++) {
+            // A null element of a JSON array is reported like a row without a name.
+            EmitterTypeRequest request = chunk.get(i) != null ? chunk.get(i) : new EmitterTypeRequest();
+            EmitterTypeImportRowResult result = EmitterTypeImportRowResult.builder()
+                    .row(firstRow + i)
+                    .name(request.getName())
+                    .build();
+
+            Set<ConstraintViolation<EmitterTypeRequest>> violations = validator.validate(request);
+
+            if (violations.isEmpty()) {
+                validResults.add(result);
+                validEmitterTypes.add(EmitterType.builder().name(request.getName()).build());
+            } else {
+                result.setStatus(EmitterTypeImportStatus.INVALID);
+                result.setErrors(violations.stream().map(ConstraintViolation::getMessage).sorted().toList());
+                response.setInvalid(response.getInvalid() + 1);
+            }
+
+            results.add(result);
+        }
+
+        if (!validEmitterTypes.isEmpty()) {
+            List<Boolean> created = emitterTypeService.createEmitterTypes(validEmitterTypes);
+
+            for (int i = 0; i < validResults.size(); i++) {
+                if (created.get(i)) {
+                    validResults.get(i).setStatus(EmitterTypeImportStatus.CREATED);
+                    response.setCreated(response.getCreated() + 1);
+                } else {
+                    validResults.get(i).setStatus(EmitterTypeImportStatus.DUPLICATE);
+                    validResults.get(i).setErrors(List.of(String.format(
+                            "Тип излучателя с названием \"%s\" уже существует", validResults.get(i).getName())));
+                    response.setDuplicates(response.getDuplicates() + 1);
+                }
+            }
+        }
+
+        response.setTotal(response.getTotal() + chunk.size());
+        response.getRows().addAll(results);
+    }
+
+    private static ExpectedServerException invalidFormat() {
+        return new ExpectedServerException(
+                HttpStatus.BAD_REQUEST,
+                "Некорректный формат файла импорта",
+                Instant.now());
+    }
+
+    private static EmitterTypeImportResponse newResponse() {
+        return EmitterTypeImportResponse.builder().rows(new ArrayList<>()).build();
+    }
+
+    private static int indexOfIgnoreCase(List<String> fields, String value) {
+        for (int i = 0; i < fields.size(); i++) {
+            if (value.equalsIgnoreCase(fields.get(i).trim()))
+                return i;
+        }
+
+        return -1;
+    }
+}
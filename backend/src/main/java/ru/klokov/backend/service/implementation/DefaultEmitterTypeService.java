@@ -1,66 +1,244 @@
 package ru.klokov.backend.service.implementation;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.MeterTag;
+import jakarta.persistence.EntityManager;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import ru.klokov.backend.exception.ServerException;
+import ru.klokov.backend.config.CacheConfig;
+import ru.klokov.backend.exception.ExpectedServerException;
 import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.model.EmitterTypeChanges;
+import ru.klokov.backend.model.EmitterTypeTombstone;
 import ru.klokov.backend.repository.EmitterTypeRepository;
+import ru.klokov.backend.repository.EmitterTypeTombstoneRepository;
 import ru.klokov.backend.service.EmitterTypeService;
+import ru.klokov.backend.utils.SortField;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Timed(value = "emitter.type.service", description = "Emitter type service method invocations")
 public class DefaultEmitterTypeService implements EmitterTypeService {
 
     private final EmitterTypeRepository emitterTypeRepository;
+    private final EntityManager entityManager;
+    private final EmitterTypeLookupCoalescer emitterTypeLookupCoalescer;
+    private final EmitterTypeCacheLoader emitterTypeCacheLoader;
+    private final EmitterTypeCounter emitterTypeCounter;
+    private final EmitterTypeEventOutbox emitterTypeEventOutbox;
+    private final EmitterTypeTombstoneRepository emitterTypeTombstoneRepository;
 
+    /**
+     * Not transactional on purpose: {@link EmitterTypeCacheLoader} opens its own
+     * read-only transactions, so it can repeat the load on the primary.
+     */
     @Override
+    @Cacheable(cacheNames = CacheConfig.EMITTER_TYPE_LISTS_CACHE, key = "'all'", sync = true,
+            condition = CacheConfig.NOT_PINNED_TO_PRIMARY)
     public List<EmitterType> getAllEmitterTypes() {
         log.info("Method getAllEmitterTypes executed");
 
-        return emitterTypeRepository.findAll();
+        return emitterTypeCacheLoader.load(emitterTypeRepository::findAll);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportEmitterTypes(Consumer<EmitterType> consumer) {
+        log.info("Method exportEmitterTypes executed");
+
+        try (Stream<EmitterType> emitterTypes = emitterTypeRepository.streamAllBy()) {
+            emitterTypes.forEach(emitterType -> {
+                consumer.accept(emitterType);
+                entityManager.detach(emitterType);
+            });
+        }
     }
 
+    /**
+     * Not transactional on purpose: {@link EmitterTypeLookupCoalescer} opens its own
+     * read-only transaction per batch, so callers waiting for a shared lookup do not
+     * hold a connection.
+     */
     @Override
+    @Cacheable(cacheNames = CacheConfig.EMITTER_TYPES_CACHE, key = "#id", sync = true,
+            condition = CacheConfig.NOT_PINNED_TO_PRIMARY)
     public EmitterType getEmitterTypeById(Long id) {
         log.info("Method getEmitterTypeById executed with parameter {}", id);
 
-        return emitterTypeRepository.findById(id).orElseThrow(
-                () -> new ServerException(
+        return emitterTypeLookupCoalescer.findById(id).orElseThrow(
+                () -> new ExpectedServerException(
                         HttpStatus.NOT_FOUND,
                         String.format("Тип излучателя с идентификатором %d не найден", id),
                         Instant.now()));
     }
 
+    /**
+     * Loads all requested emitter types with one {@code IN} query. The result follows
+     * the order of {@code ids} and leaves out ids that do not exist.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmitterType> getEmitterTypesByIds(List<Long> ids) {
+        log.info("Method getEmitterTypesByIds executed with {} ids", ids.size());
+
+        Map<Long, EmitterType> emitterTypesById = emitterTypeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(EmitterType::getId, Function.identity()));
+
+        return ids.stream()
+                .map(emitterTypesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Without {@code exactCount} the total comes from {@link EmitterTypeCounter}
+     * instead of a {@code count(*)} query, so it may lag behind writes made by other
+     * instances until the next reconciliation.
+     */
     @Override
-    public Page<EmitterType> getEmitterTypesPage(int pageNumber, int pageSize, String sortField, boolean sortAsc) {
-        log.info("Method getEmitterTypesPage executed with parameter {}", pageNumber);
+    @Transactional(readOnly = true)
+    @Timed(value = "emitter.type.service.page", description = "Emitter type page requests by sort field")
+    public Page<EmitterType> getEmitterTypesPage(int pageNumber, int pageSize,
+            @MeterTag(key = "sort.field") String sortField, boolean sortAsc, boolean exactCount) {
+        log.info("Method getEmitterTypesPage executed with parameters {}, {}", pageNumber, exactCount);
+
+        Pageable pageable = PageRequest.of(pageNumber - 1, pageSize, SortField.of(sortField).getSort(sortAsc));
 
-        Sort sort = sortAsc ? Sort.by(sortField).ascending() : Sort.by(sortField).descending();
-        Pageable pageable = PageRequest.of(pageNumber - 1, pageSize, sort);
+        if (exactCount)
+            return emitterTypeRepository.findAll(pageable);
 
-        return emitterTypeRepository.findAll(pageable);
+        Slice<EmitterType> slice = emitterTypeRepository.findSliceBy(pageable);
+        long total = emitterTypeCounter.getCount();
+
+        // A stale count must not hide a page the slice has just proven to exist.
+        if (slice.hasNext())
+            total = Math.max(total, pageable.getOffset() + pageSize + 1);
+
+        return new PageImpl<>(slice.getContent(), pageable, total);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<EmitterType> searchEmitterTypes(String query, int limit) {
+        log.info("Method searchEmitterTypes executed with parameters {}, {}", query, limit);
+
+        NameSearchPattern searchPattern = NameSearchPattern.of(query);
+
+        return emitterTypeRepository.searchByName(
+                searchPattern.query(), searchPattern.pattern(), searchPattern.prefix(), Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "emitter.type.service.window", description = "Emitter type keyset page requests by sort field")
+    public Window<EmitterType> getEmitterTypesWindow(ScrollPosition position, int pageSize,
+            @MeterTag(key = "sort.field") String sortField, boolean sortAsc) {
+        log.info("Method getEmitterTypesWindow executed with parameter {}", position);
+
+        SortField field = SortField.of(sortField);
+
+        if (field.isIgnoreCase() && position instanceof KeysetScrollPosition keysetPosition)
+            return emitterTypeRepository.scrollByLowerName(keysetPosition, sortAsc, Limit.of(pageSize));
+
+        return emitterTypeRepository.findAllBy(position, field.getSort(sortAsc), Limit.of(pageSize));
+    }
+
+    /**
+     * Reads the last revision first and only returns changes up to it. Every lower
+     * revision is committed by then, so asking again from the returned revision can
+     * neither skip nor repeat a change. The compacted revision is checked after the
+     * tombstones are read, because compaction may run in between.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public EmitterTypeChanges getEmitterTypeChanges(long since, int limit) {
+        log.info("Method getEmitterTypeChanges executed with parameters {}, {}", since, limit);
+
+        long until = emitterTypeEventOutbox.getLastRevision();
+
+        List<EmitterType> changed = emitterTypeRepository.findChanges(since, until, Limit.of(limit + 1));
+
+        // A client starting from scratch holds nothing that could have been deleted.
+        List<EmitterTypeTombstone> tombstones = since == 0
+                ? List.of()
+                : emitterTypeTombstoneRepository.findChanges(since, until, Limit.of(limit + 1));
+
+        if (since > 0 && since < emitterTypeTombstoneRepository.findCompactedRevision())
+            return EmitterTypeChanges.builder()
+                    .revision(until)
+                    .resyncRequired(true)
+                    .changed(List.of())
+                    .deleted(List.of())
+                    .build();
+
+        // Both lists hold at most limit + 1 changes, so the limit-th lowest revision of the two is the last one returned.
+        boolean hasMore = changed.size() + tombstones.size() > limit;
+        long revision = !hasMore ? until : LongStream.concat(
+                changed.stream().mapToLong(EmitterType::getRevision),
+                tombstones.stream().mapToLong(EmitterTypeTombstone::getRevision))
+                .sorted()
+                .skip(limit - 1)
+                .findFirst()
+                .getAsLong();
+
+        return EmitterTypeChanges.builder()
+                .revision(revision)
+                .hasMore(hasMore)
+                .changed(changed.stream()
+                        .filter(emitterType -> emitterType.getRevision() <= revision)
+                        .toList())
+                .deleted(tombstones.stream()
+                        .filter(tombstone -> tombstone.getRevision() <= revision)
+                        .map(EmitterTypeTombstone::getEmitterTypeId)
+                        .toList())
+                .build();
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMITTER_TYPE_LISTS_CACHE, allEntries = true)
     public EmitterType createEmitterType(EmitterType emitterType) {
         log.info("Method createEmitterType executed with parameter {}", emitterType);
 
         try {
-            return emitterTypeRepository.save(emitterType);
+            emitterType.setRevision(emitterTypeEventOutbox.reserveRevisions(1));
+            EmitterType created = emitterTypeRepository.save(emitterType);
+            emitterTypeCounter.adjust(1);
+            emitterTypeEventOutbox.recordCreated(List.of(created));
+            return created;
         } catch (DataIntegrityViolationException exception) {
-            throw new ServerException(
+            throw new ExpectedServerException(
                     HttpStatus.CONFLICT,
                     String.format("Тип излучателя с названием \"%s\" уже существует", emitterType.getName()),
                     Instant.now());
@@ -68,37 +246,114 @@ public class DefaultEmitterTypeService implements EmitterTypeService {
     }
 
     @Override
-    public EmitterType updateEmitterType(Long id, EmitterType emitterType) {
-        log.info("Method updateEmitterType executed with parameters {}, {}", emitterType, id);
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMITTER_TYPE_LISTS_CACHE, allEntries = true)
+    public List<Boolean> createEmitterTypes(List<EmitterType> emitterTypes) {
+        log.info("Method createEmitterTypes executed with {} emitter types", emitterTypes.size());
 
-        EmitterType emitterTypeToUpdate = emitterTypeRepository.findById(id).orElseThrow(
-                () -> new ServerException(
-                        HttpStatus.NOT_FOUND,
-                        String.format("Тип излучателя с идентификатором %d не найден", id),
-                        Instant.now()));
+        // Lock the revision counter before the rows, like every other writer; the count is known only after the insert.
+        emitterTypeEventOutbox.lockRevisions();
+
+        int[] updateCounts = emitterTypeRepository.insertAllIgnoringDuplicates(
+                emitterTypes.stream().map(EmitterType::getName).toList());
+
+        List<Boolean> created = new ArrayList<>(updateCounts.length);
+        List<String> createdNames = new ArrayList<>(updateCounts.length);
+        for (int i = 0; i < updateCounts.length; i++) {
+            created.add(updateCounts[i] > 0);
+            if (updateCounts[i] > 0)
+                createdNames.add(emitterTypes.get(i).getName());
+        }
+
+        emitterTypeCounter.adjust(createdNames.size());
+
+        // The batch insert does not return generated keys, so the created rows are read back for their revisions.
+        if (!createdNames.isEmpty()) {
+            List<EmitterType> createdEmitterTypes = emitterTypeRepository.findByNameInOrderById(createdNames);
+            long revision = emitterTypeEventOutbox.reserveRevisions(createdEmitterTypes.size());
+
+            emitterTypeRepository.updateRevisions(
+                    createdEmitterTypes.stream().map(EmitterType::getId).toList(), revision);
+
+            List<EmitterType> revisedEmitterTypes = new ArrayList<>(createdEmitterTypes.size());
+            for (EmitterType emitterType : createdEmitterTypes) {
+                revisedEmitterTypes.add(EmitterType.builder()
+                        .id(emitterType.getId())
+                        .name(emitterType.getName())
+                        .version(emitterType.getVersion())
+                        .updatedAt(emitterType.getUpdatedAt())
+                        .revision(revision++)
+                        .build());
+            }
+
+            emitterTypeEventOutbox.recordCreated(revisedEmitterTypes);
+        }
 
-        emitterTypeToUpdate.setName(emitterType.getName());
+        return created;
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.EMITTER_TYPES_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.EMITTER_TYPE_LISTS_CACHE, allEntries = true) })
+    public EmitterType updateEmitterType(Long id, EmitterType emitterType, Long expectedVersion) {
+        log.info("Method updateEmitterType executed with parameters {}, {}, {}", emitterType, id, expectedVersion);
+
+        long revision = emitterTypeEventOutbox.reserveRevisions(1);
+        Optional<EmitterType> updated;
 
         try {
-            return emitterTypeRepository.save(emitterTypeToUpdate);
+            updated = emitterTypeRepository.updateName(
+                    id, expectedVersion, emitterType.getName(), Instant.now(), revision);
         } catch (DataIntegrityViolationException exception) {
-            throw new ServerException(HttpStatus.CONFLICT,
+            throw new ExpectedServerException(HttpStatus.CONFLICT,
                     String.format("Тип излучателя с названием \"%s\" уже существует", emitterType.getName()),
                     Instant.now());
         }
+
+        EmitterType updatedEmitterType = updated.orElseThrow(() -> notFoundOrVersionMismatch(id, expectedVersion));
+
+        emitterTypeEventOutbox.recordUpdated(updatedEmitterType);
+
+        return updatedEmitterType;
     }
 
     @Override
-    public void deleteEmitterType(Long id) {
-        log.info("Method deleteEmitterType executed with parameter {}", id);
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.EMITTER_TYPES_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.EMITTER_TYPE_LISTS_CACHE, allEntries = true) })
+    public void deleteEmitterType(Long id, Long expectedVersion) {
+        log.info("Method deleteEmitterType executed with parameters {}, {}", id, expectedVersion);
 
-        emitterTypeRepository.findById(id).orElseThrow(
-                () -> new ServerException(
-                        HttpStatus.NOT_FOUND,
-                        String.format("Тип излучателя с идентификатором %d не найден", id),
-                        Instant.now()));
+        long revision = emitterTypeEventOutbox.reserveRevisions(1);
+
+        int deleted = expectedVersion == null
+                ? emitterTypeRepository.removeById(id)
+                : emitterTypeRepository.removeByIdAndVersion(id, expectedVersion);
+
+        if (deleted == 0)
+            throw notFoundOrVersionMismatch(id, expectedVersion);
 
-        emitterTypeRepository.deleteById(id);
+        emitterTypeCounter.adjust(-1);
+        emitterTypeEventOutbox.recordDeleted(id, revision);
     }
 
+    /**
+     * Explains why a conditional single-statement mutation affected no rows. The
+     * extra existence check only runs on this failure path.
+     */
+    private ExpectedServerException notFoundOrVersionMismatch(Long id, Long expectedVersion) {
+        if (expectedVersion != null && emitterTypeRepository.existsById(id))
+            return new ExpectedServerException(
+                    HttpStatus.PRECONDITION_FAILED,
+                    String.format("Тип излучателя с идентификатором %d был изменен другим пользователем", id),
+                    Instant.now());
+
+        return new ExpectedServerException(
+                HttpStatus.NOT_FOUND,
+                String.format("Тип излучателя с идентификатором %d не найден", id),
+                Instant.now());
+    }
 }
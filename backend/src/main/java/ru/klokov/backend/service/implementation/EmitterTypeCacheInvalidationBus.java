@@ -0,0 +1,258 @@
+package ru.klokov.backend.service.implementation;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import ru.klokov.backend.config.CacheConfig;
+
+/**
+ * Keeps the emitter type caches of all instances consistent through PostgreSQL
+ * {@code LISTEN}/{@code NOTIFY}, without a separate broker.
+ * <p>
+ * {@link EmitterTypeEventOutbox} publishes every recorded change in the transaction
+ * of the mutation, so the notification is delivered on commit only. Its payload is
+ * {@code firstRevision:lastRevision:id}, the id left empty for creations, which only
+ * affect the list cache. Revisions are gapless and notifications arrive in commit
+ * order, so a revision that does not follow the last one seen means a notification
+ * was missed and both caches are flushed. They are also flushed whenever the
+ * listener (re)connects, because changes committed while it was not listening are
+ * unknown. Each revision is passed to {@link EmitterTypeCacheLoader} before the
+ * caches are evicted for it, so a lagging replica does not fill them again.
+ * <p>
+ * The listener holds one dedicated connection to the primary outside of the pool:
+ * notifications are neither sent to replicas nor to pooled connections that are
+ * handed out to other work.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "cache.invalidation.enabled", havingValue = "true")
+public class EmitterTypeCacheInvalidationBus implements SmartLifecycle, MeterBinder {
+    static final String CHANNEL = "emitter_type_cache";
+    static final String APPLICATION_NAME = "emitter-type-cache-invalidation";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final CacheManager cacheManager;
+    private final EmitterTypeCacheLoader emitterTypeCacheLoader;
+    private final int pollTimeoutMillis;
+    private final long reconnectDelayMillis;
+
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private Thread listener;
+
+    /**
+     * Last revision the caches are known to be consistent with; only touched by the
+     * listener thread.
+     */
+    private long lastRevision;
+
+    public EmitterTypeCacheInvalidationBus(
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties,
+            CacheManager cacheManager,
+            EmitterTypeCacheLoader emitterTypeCacheLoader,
+            @Value("${cache.invalidation.poll-timeout}") Duration pollTimeout,
+            @Value("${cache.invalidation.reconnect-delay}") Duration reconnectDelay) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.cacheManager = cacheManager;
+        this.emitterTypeCacheLoader = emitterTypeCacheLoader;
+        this.pollTimeoutMillis = (int) pollTimeout.toMillis();
+        this.reconnectDelayMillis = reconnectDelay.toMillis();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(long firstRevision, long lastRevision, Long id) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload(firstRevision, lastRevision, id));
+    }
+
+    static String payload(long firstRevision, long lastRevision, Long id) {
+        return firstRevision + ":" + lastRevision + ":" + (id == null ? "" : id);
+    }
+
+    /**
+     * Applies one notification to the local caches. Unreadable payloads are treated
+     * like a gap.
+     */
+    public void onNotification(String payload) {
+        String[] parts = payload.split(":", -1);
+        long firstRevision;
+        long notifiedRevision;
+        Long id;
+
+        try {
+            firstRevision = Long.parseLong(parts[0]);
+            notifiedRevision = Long.parseLong(parts[1]);
+            id = parts[2].isEmpty() ? null : Long.valueOf(parts[2]);
+        } catch (RuntimeException e) {
+            // The revision is unknown, so the next fills are only checked against the last one seen.
+            emitterTypeCacheLoader.requireRevision(lastRevision);
+            flush("unreadable notification " + payload);
+            return;
+        }
+
+        emitterTypeCacheLoader.requireRevision(notifiedRevision);
+
+        // Notifications committed between LISTEN and reading the last revision are delivered as well.
+        if (notifiedRevision <= lastRevision) {
+            evict(id);
+            return;
+        }
+
+        if (firstRevision > lastRevision + 1)
+            flush(String.format("gap between revisions %d and %d", lastRevision, firstRevision));
+        else
+            evict(id);
+
+        lastRevision = notifiedRevision;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running)
+            return;
+
+        running = true;
+        listener = new Thread(this::listen, APPLICATION_NAME);
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+
+        if (listener != null) {
+            listener.interrupt();
+            listener = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("emitter.type.cache.invalidation.connected", this, bus -> bus.connected ? 1 : 0)
+                .description("Whether the cache invalidation listener is connected")
+                .register(registry);
+        FunctionCounter.builder("emitter.type.cache.invalidation.evictions", evictions, LongAdder::sum)
+                .description("Emitter type cache evictions caused by notifications")
+                .register(registry);
+        FunctionCounter.builder("emitter.type.cache.invalidation.flushes", flushes, LongAdder::sum)
+                .description("Full emitter type cache flushes after a connect or a gap")
+                .register(registry);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = connect()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+
+                    try (ResultSet resultSet = statement.executeQuery(
+                            "SELECT last_sequence_number FROM emitter_type_event_sequence")) {
+                        resultSet.next();
+                        lastRevision = resultSet.getLong(1);
+                    }
+                }
+
+                connected = true;
+                emitterTypeCacheLoader.requireRevision(lastRevision);
+                flush("listener connected");
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+
+                    if (notifications != null && notifications.length > 0) {
+                        for (PGNotification notification : notifications)
+                            onNotification(notification.getParameter());
+                    } else if (!connection.isValid(pollTimeoutMillis / 1000 + 1)) {
+                        // A silently dropped connection does not fail getNotifications.
+                        throw new SQLException("Cache invalidation connection is no longer valid");
+                    }
+                }
+            } catch (SQLException e) {
+                if (running)
+                    log.warn("Cache invalidation listener disconnected, reconnecting in {} ms: {}",
+                            reconnectDelayMillis, e.getMessage());
+            } finally {
+                connected = false;
+            }
+
+            if (running)
+                pause();
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", dataSourceProperties.determineUsername());
+        properties.setProperty("password", dataSourceProperties.determinePassword());
+        properties.setProperty("ApplicationName", APPLICATION_NAME);
+
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    private void evict(Long id) {
+        evictions.increment();
+
+        if (id != null)
+            cache(CacheConfig.EMITTER_TYPES_CACHE).evict(id);
+
+        cache(CacheConfig.EMITTER_TYPE_LISTS_CACHE).clear();
+    }
+
+    private void flush(String reason) {
+        flushes.increment();
+        log.info("Flushing emitter type caches after {}", reason);
+
+        cache(CacheConfig.EMITTER_TYPES_CACHE).clear();
+        cache(CacheConfig.EMITTER_TYPE_LISTS_CACHE).clear();
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
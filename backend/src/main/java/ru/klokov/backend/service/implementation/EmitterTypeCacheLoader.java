@@ -0,0 +1,95 @@
+package ru.klokov.backend.service.implementation;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import ru.klokov.backend.config.ReadWriteRoutingDataSource;
+import ru.klokov.backend.repository.EmitterTypeEventRepository;
+
+/**
+ * Loads cache misses of the emitter type caches in a read-only transaction, which
+ * is routed to a replica when routing is enabled.
+ * <p>
+ * A lagging replica must not put back what an eviction has just removed. Every
+ * revision the caches are evicted for, written here or notified by another
+ * instance, is therefore recorded first. A load reads the replica's last revision
+ * before the emitter types, so the rows are at least that recent: replicas apply
+ * commits in order, and revisions are committed in order. If that revision is older
+ * than the highest one recorded, the load is repeated on the primary.
+ */
+@Component
+public class EmitterTypeCacheLoader implements MeterBinder {
+    private final EmitterTypeEventRepository emitterTypeEventRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean routingEnabled;
+
+    private final AtomicLong requiredRevision = new AtomicLong();
+    private final LongAdder primaryLoads = new LongAdder();
+
+    public EmitterTypeCacheLoader(
+            EmitterTypeEventRepository emitterTypeEventRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${datasource.routing.enabled}") boolean routingEnabled) {
+
+        this.emitterTypeEventRepository = emitterTypeEventRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.routingEnabled = routingEnabled;
+    }
+
+    /**
+     * Records that the caches are evicted for {@code revision}, after the current
+     * transaction commits or at once when there is none. Either way this happens
+     * before the eviction, so a load racing with it is checked against the new
+     * revision. Rolled back revisions are never required.
+     */
+    public void requireRevision(long revision) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            requiredRevision.accumulateAndGet(revision, Math::max);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                requiredRevision.accumulateAndGet(revision, Math::max);
+            }
+        });
+    }
+
+    public <T> T load(Supplier<T> loader) {
+        if (!routingEnabled)
+            return readOnlyTransaction.execute(status -> loader.get());
+
+        Optional<T> loaded = readOnlyTransaction.execute(status -> {
+            long revision = emitterTypeEventRepository.findLastSequenceNumber();
+            T result = loader.get();
+
+            return revision >= requiredRevision.get() ? Optional.of(result) : Optional.<T>empty();
+        });
+
+        return loaded.orElseGet(() -> {
+            primaryLoads.increment();
+            return ReadWriteRoutingDataSource.callOnPrimary(() -> readOnlyTransaction.execute(status -> loader.get()));
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("emitter.type.cache.primary.loads", primaryLoads, LongAdder::sum)
+                .description("Emitter type cache loads repeated on the primary because the replica lagged")
+                .register(registry);
+    }
+}
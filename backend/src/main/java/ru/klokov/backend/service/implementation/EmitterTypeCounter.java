@@ -0,0 +1,81 @@
+package ru.klokov.backend.service.implementation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.klokov.backend.repository.EmitterTypeRepository;
+
+/**
+ * Total number of emitter types, kept in memory so that paged listings do not need
+ * a {@code count(*)} per request.
+ * <p>
+ * Creates and deletes made through this instance adjust the count once their
+ * transaction commits. Writes made by other instances or directly in the database
+ * are picked up by the periodic reconciliation every {@code page.count.reconcile-interval},
+ * so the count is approximate in between.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class EmitterTypeCounter implements MeterBinder {
+    private final EmitterTypeRepository emitterTypeRepository;
+
+    private final AtomicLong count = new AtomicLong();
+    private volatile boolean reconciled;
+
+    public long getCount() {
+        if (!reconciled)
+            reconcile();
+
+        return count.get();
+    }
+
+    /**
+     * Applies {@code delta} after the current transaction commits, or at once when
+     * there is no transaction. Rolled back changes are never counted.
+     */
+    public void adjust(long delta) {
+        if (delta == 0)
+            return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            count.addAndGet(delta);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                count.addAndGet(delta);
+            }
+        });
+    }
+
+    @Scheduled(
+            initialDelayString = "${page.count.reconcile-interval}",
+            fixedDelayString = "${page.count.reconcile-interval}")
+    public void reconcile() {
+        long total = emitterTypeRepository.count();
+        long previous = count.getAndSet(total);
+        reconciled = true;
+
+        if (previous != total)
+            log.debug("Emitter type count reconciled from {} to {}", previous, total);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("emitter.type.count", count, AtomicLong::get)
+                .description("Emitter types counted for paged listings")
+                .register(registry);
+    }
+}
@@ -0,0 +1,153 @@
+package ru.klokov.backend.service.implementation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.model.EmitterTypeEvent;
+import ru.klokov.backend.model.EmitterTypeEventType;
+import ru.klokov.backend.model.EmitterTypeTombstone;
+import ru.klokov.backend.repository.EmitterTypeEventRepository;
+import ru.klokov.backend.repository.EmitterTypeTombstoneRepository;
+
+/**
+ * Writes emitter type change events to the {@code emitter_type_event} table in the
+ * transaction of the mutation itself, so an event exists exactly when its change
+ * was committed, across restarts included. Events older than {@code events.retention}
+ * are purged; clients that fall further behind have to resynchronize in full.
+ * <p>
+ * The sequence number of an event is also the revision stamped on the changed row
+ * or on the tombstone of a deleted one. Mutations reserve it before touching
+ * {@code emitter_type}, so every writer locks the sequence row first and two writers
+ * never wait for each other in opposite order. Each recorded change is also
+ * published to the other instances through {@link EmitterTypeCacheInvalidationBus}
+ * and required of the cache fills that follow, see {@link EmitterTypeCacheLoader}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class EmitterTypeEventOutbox {
+    private final EmitterTypeEventRepository emitterTypeEventRepository;
+    private final EmitterTypeTombstoneRepository emitterTypeTombstoneRepository;
+    private final ObjectProvider<EmitterTypeCacheInvalidationBus> emitterTypeCacheInvalidationBus;
+    private final EmitterTypeCacheLoader emitterTypeCacheLoader;
+
+    @Value("${events.retention}")
+    private Duration EVENTS_RETENTION;
+
+    @Value("${changes.tombstone-retention}")
+    private Duration TOMBSTONE_RETENTION;
+
+    /**
+     * Reserves {@code count} consecutive revisions and returns the first one.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long reserveRevisions(int count) {
+        emitterTypeEventRepository.reserveSequenceNumbers(count);
+
+        return emitterTypeEventRepository.findLastSequenceNumber() - count + 1;
+    }
+
+    /**
+     * Takes the lock {@link #reserveRevisions(int)} takes without reserving anything,
+     * for writers that learn how many revisions they need only after writing to
+     * {@code emitter_type}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockRevisions() {
+        emitterTypeEventRepository.lockSequence();
+    }
+
+    @Transactional(readOnly = true)
+    public long getLastRevision() {
+        return emitterTypeEventRepository.findLastSequenceNumber();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(List<EmitterType> emitterTypes) {
+        append(EmitterTypeEventType.CREATED, emitterTypes);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUpdated(EmitterType emitterType) {
+        append(EmitterTypeEventType.UPDATED, List.of(emitterType));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Long id, long revision) {
+        append(EmitterTypeEventType.DELETED, List.of(EmitterType.builder().id(id).revision(revision).build()));
+
+        emitterTypeTombstoneRepository.save(EmitterTypeTombstone.builder()
+                .emitterTypeId(id)
+                .revision(revision)
+                .deletedAt(Instant.now())
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${events.purge-interval}")
+    @Transactional
+    public void purge() {
+        int purged = emitterTypeEventRepository.removeByCreatedAtBefore(Instant.now().minus(EVENTS_RETENTION));
+
+        if (purged > 0)
+            log.debug("Purged {} emitter type events older than {}", purged, EVENTS_RETENTION);
+    }
+
+    /**
+     * Removes tombstones older than {@code changes.tombstone-retention}. The
+     * compacted revision is raised in the same transaction, so a reader that misses
+     * a tombstone is always told to resynchronize.
+     */
+    @Scheduled(fixedDelayString = "${changes.compaction-interval}")
+    @Transactional
+    public void compactTombstones() {
+        Long revision = emitterTypeTombstoneRepository.findMaxRevisionByDeletedAtBefore(
+                Instant.now().minus(TOMBSTONE_RETENTION));
+
+        if (revision == null)
+            return;
+
+        emitterTypeTombstoneRepository.updateCompactedRevision(revision);
+        int compacted = emitterTypeTombstoneRepository.removeByRevisionLessThanEqual(revision);
+
+        log.debug("Compacted {} emitter type tombstones up to revision {}", compacted, revision);
+    }
+
+    private void append(EmitterTypeEventType type, List<EmitterType> emitterTypes) {
+        if (emitterTypes.isEmpty())
+            return;
+
+        Instant createdAt = Instant.now();
+
+        List<EmitterTypeEvent> events = new ArrayList<>(emitterTypes.size());
+        for (EmitterType emitterType : emitterTypes) {
+            events.add(EmitterTypeEvent.builder()
+                    .sequenceNumber(emitterType.getRevision())
+                    .type(type)
+                    .emitterTypeId(emitterType.getId())
+                    .name(emitterType.getName())
+                    .version(emitterType.getVersion())
+                    .createdAt(createdAt)
+                    .build());
+        }
+
+        emitterTypeEventRepository.saveAll(events);
+        emitterTypeCacheLoader.requireRevision(emitterTypes.get(emitterTypes.size() - 1).getRevision());
+
+        // Creations only affect the list cache, so no id is published for them.
+        Long id = type == EmitterTypeEventType.CREATED ? null : emitterTypes.get(0).getId();
+        emitterTypeCacheInvalidationBus.ifAvailable(bus -> bus.publish(
+                emitterTypes.get(0).getRevision(), emitterTypes.get(emitterTypes.size() - 1).getRevision(), id));
+    }
+}
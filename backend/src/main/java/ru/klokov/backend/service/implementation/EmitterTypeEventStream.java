@@ -0,0 +1,340 @@
+package ru.klokov.backend.service.implementation;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.klokov.backend.mapper.EmitterTypeMapper;
+import ru.klokov.backend.model.EmitterTypeEvent;
+import ru.klokov.backend.repository.EmitterTypeEventRepository;
+
+/**
+ * Delivers outbox events to Server-Sent Events subscribers.
+ * <p>
+ * The outbox is polled every {@code events.stream.poll-interval}, and one query
+ * serves every subscriber that is up to date. A subscriber that resumes from an
+ * older sequence number reads its own backlog, at most {@code events.stream.batch-size}
+ * events per poll, until it catches up. Each event has its sequence number as SSE
+ * id, so a reconnecting {@code EventSource} resumes through {@code Last-Event-ID}.
+ * If the events a subscriber still needs have been purged, it gets a {@code reset}
+ * event and has to reload the catalog.
+ * <p>
+ * The scheduled threads only read the outbox and queue events; a pool of
+ * {@code events.stream.send-threads} threads writes them, one subscription at a
+ * time in order. A slow client therefore never delays polling or the other
+ * subscribers. A subscription is dropped when its queue holds more than
+ * {@code events.stream.queue-capacity} events or a single write has been blocked for
+ * longer than {@code events.stream.send-timeout}; the client reconnects and resumes
+ * from its last event id.
+ * <p>
+ * A blocking servlet write cannot be interrupted, and the emitter cannot be completed
+ * while the write holds its lock, so a timed-out write keeps its thread until the
+ * container's write timeout fails it; the emitter is completed with an error right
+ * after. Meanwhile the pool runs one extra thread per stalled write, so stuck clients
+ * never take the senders of the others.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class EmitterTypeEventStream implements MeterBinder, InitializingBean, DisposableBean {
+    private static final String CHANGE_EVENT_NAME = "emitter-type";
+    private static final String RESET_EVENT_NAME = "reset";
+    private static final long NOT_SENDING = Long.MIN_VALUE;
+    private static final long STALLED = Long.MAX_VALUE;
+
+    private final EmitterTypeEventRepository emitterTypeEventRepository;
+    private final EmitterTypeMapper mapper;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private long lastSequenceNumber = -1;
+
+    @Value("${events.stream.timeout}")
+    private Duration STREAM_TIMEOUT;
+
+    @Value("${events.stream.batch-size}")
+    private int STREAM_BATCH_SIZE;
+
+    @Value("${events.stream.send-threads}")
+    private int STREAM_SEND_THREADS;
+
+    @Value("${events.stream.queue-capacity}")
+    private int STREAM_QUEUE_CAPACITY;
+
+    @Value("${events.stream.send-timeout}")
+    private Duration STREAM_SEND_TIMEOUT;
+
+    private Executor sendExecutor;
+    private LongSupplier nanoClock = System::nanoTime;
+
+    @Override
+    public void afterPropertiesSet() {
+        sendExecutor = new ThreadPoolExecutor(STREAM_SEND_THREADS, STREAM_SEND_THREADS, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("emitter-type-events-"));
+    }
+
+    @Override
+    public void destroy() {
+        if (sendExecutor instanceof ExecutorService executorService)
+            executorService.shutdownNow();
+    }
+
+    /**
+     * @param after sequence number of the last event the client has seen, or
+     *              {@code null} to receive only events from now on
+     */
+    public SseEmitter subscribe(Long after) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+        register(emitter, after);
+        return emitter;
+    }
+
+    public void register(SseEmitter emitter, Long after) {
+        Subscription subscription = new Subscription(emitter,
+                after != null ? after : emitterTypeEventRepository.findLastSequenceNumber(), STREAM_QUEUE_CAPACITY);
+
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(exception -> subscriptions.remove(subscription));
+
+        subscriptions.add(subscription);
+    }
+
+    @Scheduled(fixedDelayString = "${events.stream.poll-interval}")
+    public void poll() {
+        if (subscriptions.isEmpty()) {
+            lastSequenceNumber = -1;
+            return;
+        }
+
+        dropStalledSubscriptions();
+
+        if (lastSequenceNumber < 0)
+            lastSequenceNumber = emitterTypeEventRepository.findLastSequenceNumber();
+
+        long previousSequenceNumber = lastSequenceNumber;
+        List<EmitterTypeEvent> events = findEventsAfter(previousSequenceNumber);
+
+        if (!events.isEmpty())
+            lastSequenceNumber = events.get(events.size() - 1).getSequenceNumber();
+
+        for (Subscription subscription : subscriptions) {
+            if (subscription.position >= previousSequenceNumber)
+                send(subscription, events);
+            else
+                catchUp(subscription);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${events.stream.heartbeat-interval}")
+    public void heartbeat() {
+        for (Subscription subscription : subscriptions)
+            enqueue(subscription, SseEmitter.event().comment("heartbeat"));
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("emitter.type.events.subscribers", subscriptions, Set::size)
+                .description("Open emitter type change feed subscriptions")
+                .register(registry);
+    }
+
+    private void catchUp(Subscription subscription) {
+        List<EmitterTypeEvent> events = findEventsAfter(subscription.position);
+
+        // Sequence numbers have no gaps, so a missing next event can only have been purged.
+        if (events.isEmpty() || events.get(0).getSequenceNumber() != subscription.position + 1) {
+            reset(subscription);
+            return;
+        }
+
+        send(subscription, events);
+    }
+
+    private void send(Subscription subscription, List<EmitterTypeEvent> events) {
+        for (EmitterTypeEvent event : events) {
+            if (event.getSequenceNumber() <= subscription.position)
+                continue;
+
+            if (!enqueue(subscription, SseEmitter.event()
+                    .id(String.valueOf(event.getSequenceNumber()))
+                    .name(CHANGE_EVENT_NAME)
+                    .data(mapper.toEmitterTypeEventResponse(event))))
+                return;
+
+            subscription.position = event.getSequenceNumber();
+        }
+    }
+
+    private void reset(Subscription subscription) {
+        long position = emitterTypeEventRepository.findLastSequenceNumber();
+
+        if (enqueue(subscription, SseEmitter.event()
+                .id(String.valueOf(position))
+                .name(RESET_EVENT_NAME)
+                .data(position)))
+            subscription.position = position;
+    }
+
+    /**
+     * Queues an event for the sender threads. The position of a subscription is
+     * advanced as soon as its event is queued, because queued events are written in
+     * order or the subscription is closed.
+     */
+    private boolean enqueue(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        if (subscription.closed)
+            return false;
+
+        if (!subscription.pending.offer(event)) {
+            drop(subscription, new IOException("Send queue is full"));
+            return false;
+        }
+
+        if (subscription.draining.compareAndSet(false, true))
+            sendExecutor.execute(() -> drain(subscription));
+
+        return true;
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!subscription.closed && (event = subscription.pending.poll()) != null) {
+                subscription.sendStartedAt.set(nanoClock.getAsLong());
+
+                try {
+                    subscription.emitter.send(event);
+                } finally {
+                    if (subscription.sendStartedAt.getAndSet(NOT_SENDING) == STALLED)
+                        resizeSendPool(-1);
+                }
+            }
+        } catch (IOException | IllegalStateException exception) {
+            drop(subscription, exception);
+        } finally {
+            subscription.draining.set(false);
+        }
+
+        if (subscription.closed) {
+            subscription.emitter.completeWithError(subscription.closeCause);
+            return;
+        }
+
+        // An event queued after the last poll of the queue but before draining was cleared.
+        if (!subscription.pending.isEmpty() && subscription.draining.compareAndSet(false, true))
+            sendExecutor.execute(() -> drain(subscription));
+    }
+
+    /**
+     * Drops the subscriptions whose current write has been blocked for longer than the
+     * send timeout and lends the pool a thread for each of them until the write returns.
+     * Marking the write as stalled only succeeds while that same write is in progress,
+     * so a thread is never added for a write that has just finished.
+     */
+    private void dropStalledSubscriptions() {
+        long now = nanoClock.getAsLong();
+
+        for (Subscription subscription : subscriptions) {
+            long sendStartedAt = subscription.sendStartedAt.get();
+
+            if (sendStartedAt != NOT_SENDING && sendStartedAt != STALLED
+                    && now - sendStartedAt > STREAM_SEND_TIMEOUT.toNanos()
+                    && subscription.sendStartedAt.compareAndSet(sendStartedAt, STALLED)) {
+                resizeSendPool(1);
+                drop(subscription, new IOException("Send timed out"));
+            }
+        }
+    }
+
+    private synchronized void resizeSendPool(int delta) {
+        if (!(sendExecutor instanceof ThreadPoolExecutor pool))
+            return;
+
+        if (delta > 0) {
+            pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+            pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+        } else {
+            pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+            pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+        }
+    }
+
+    /**
+     * Stops feeding a subscription. The emitter is completed by its sender thread,
+     * which may still be blocked in a write that holds the emitter's lock.
+     */
+    private void drop(Subscription subscription, Exception exception) {
+        if (subscription.closed)
+            return;
+
+        log.debug("Emitter type change feed subscription closed: {}", exception.getMessage());
+        subscription.closeCause = exception;
+        subscription.closed = true;
+        subscriptions.remove(subscription);
+        subscription.pending.clear();
+
+        if (subscription.draining.compareAndSet(false, true))
+            sendExecutor.execute(() -> drain(subscription));
+    }
+
+    private List<EmitterTypeEvent> findEventsAfter(long sequenceNumber) {
+        return emitterTypeEventRepository.findBySequenceNumberGreaterThanOrderBySequenceNumber(
+                sequenceNumber, Limit.of(STREAM_BATCH_SIZE));
+    }
+
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        /**
+         * Sequence number of the last event queued; only touched by the scheduled threads.
+         */
+        private long position;
+
+        /**
+         * Clock reading when the current write started, {@code NOT_SENDING} between
+         * writes or {@code STALLED} once the write has timed out.
+         */
+        private final AtomicLong sendStartedAt = new AtomicLong(NOT_SENDING);
+
+        private volatile boolean closed;
+        private volatile Exception closeCause;
+
+        private Subscription(SseEmitter emitter, long position, int queueCapacity) {
+            this.emitter = emitter;
+            this.position = position;
+            this.pending = new LinkedBlockingQueue<>(queueCapacity);
+        }
+    }
+}
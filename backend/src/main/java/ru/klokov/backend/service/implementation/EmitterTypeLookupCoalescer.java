@@ -0,0 +1,190 @@
+package ru.klokov.backend.service.implementation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import ru.klokov.backend.config.ReadWriteRoutingDataSource;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.repository.EmitterTypeRepository;
+
+/**
+ * Coalesces concurrent lookups of emitter types by id.
+ * <p>
+ * Callers asking for an id that is already being loaded wait for that load instead
+ * of issuing their own query. The first caller of a batch waits for
+ * {@code lookup.coalescing.window} so that distinct ids requested in the meantime
+ * are loaded together with a single {@code WHERE id IN (...)} query. A batch that
+ * reaches {@code lookup.coalescing.max-batch-size} ids is loaded at once by the
+ * caller that filled it. Loads run in the calling threads, so no executor is needed.
+ * Their results fill the emitter type cache, so they go through
+ * {@link EmitterTypeCacheLoader}, which only trusts a replica that is recent enough.
+ */
+@Component
+public class EmitterTypeLookupCoalescer implements MeterBinder {
+    private final EmitterTypeRepository emitterTypeRepository;
+    private final EmitterTypeCacheLoader emitterTypeCacheLoader;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final Map<Long, CompletableFuture<Optional<EmitterType>>> inFlight = new ConcurrentHashMap<>();
+    private final Object batchLock = new Object();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder coalescedLookups = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+
+    private List<Long> pendingBatch;
+
+    public EmitterTypeLookupCoalescer(
+            EmitterTypeRepository emitterTypeRepository,
+            EmitterTypeCacheLoader emitterTypeCacheLoader,
+            @Value("${lookup.coalescing.window}") Duration window,
+            @Value("${lookup.coalescing.max-batch-size}") int maxBatchSize) {
+
+        this.emitterTypeRepository = emitterTypeRepository;
+        this.emitterTypeCacheLoader = emitterTypeCacheLoader;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    public Optional<EmitterType> findById(Long id) {
+        lookups.increment();
+
+        // A request that must read its own writes may not join a load started before its write.
+        if (ReadWriteRoutingDataSource.isPinnedToPrimary()) {
+            queries.increment();
+            return emitterTypeRepository.findById(id);
+        }
+
+        CompletableFuture<Optional<EmitterType>> created = new CompletableFuture<>();
+        CompletableFuture<Optional<EmitterType>> existing = inFlight.putIfAbsent(id, created);
+
+        if (existing != null) {
+            coalescedLookups.increment();
+            return await(existing);
+        }
+
+        enqueue(id);
+        return await(created);
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    public long getCoalescedLookups() {
+        return coalescedLookups.sum();
+    }
+
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    /**
+     * Average number of lookups answered by a single query.
+     */
+    public double getCoalescingRatio() {
+        long queryCount = queries.sum();
+        return queryCount == 0 ? 0 : (double) lookups.sum() / queryCount;
+    }
+
+    private void enqueue(Long id) {
+        List<Long> batch;
+        boolean leader;
+        boolean full;
+
+        synchronized (batchLock) {
+            leader = pendingBatch == null;
+            if (leader)
+                pendingBatch = new ArrayList<>();
+
+            batch = pendingBatch;
+            batch.add(id);
+
+            full = batch.size() >= maxBatchSize;
+            if (full)
+                pendingBatch = null;
+        }
+
+        if (full) {
+            load(batch);
+            return;
+        }
+
+        if (!leader)
+            return;
+
+        LockSupport.parkNanos(windowNanos);
+
+        synchronized (batchLock) {
+            // The batch was filled up and loaded by another caller while we waited.
+            if (pendingBatch != batch)
+                return;
+
+            pendingBatch = null;
+        }
+
+        load(batch);
+    }
+
+    private void load(List<Long> ids) {
+        try {
+            Map<Long, EmitterType> found = emitterTypeCacheLoader.load(() -> {
+                Map<Long, EmitterType> emitterTypes = new HashMap<>();
+                for (EmitterType emitterType : emitterTypeRepository.findAllById(ids))
+                    emitterTypes.put(emitterType.getId(), emitterType);
+                return emitterTypes;
+            });
+            queries.increment();
+
+            for (Long id : ids)
+                inFlight.remove(id).complete(Optional.ofNullable(found.get(id)));
+        } catch (RuntimeException | Error e) {
+            for (Long id : ids)
+                inFlight.remove(id).completeExceptionally(e);
+        }
+    }
+
+    private static Optional<EmitterType> await(CompletableFuture<Optional<EmitterType>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            if (e.getCause() instanceof Error error)
+                throw error;
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("emitter.type.lookup.requests", lookups, LongAdder::sum)
+                .description("Emitter type lookups by id that reached the database layer")
+                .register(registry);
+        FunctionCounter.builder("emitter.type.lookup.coalesced", coalescedLookups, LongAdder::sum)
+                .description("Lookups that joined an identical lookup already in flight")
+                .register(registry);
+        FunctionCounter.builder("emitter.type.lookup.queries", queries, LongAdder::sum)
+                .description("Database queries issued for emitter type lookups")
+                .register(registry);
+        Gauge.builder("emitter.type.lookup.coalescing.ratio", this, EmitterTypeLookupCoalescer::getCoalescingRatio)
+                .description("Lookups answered per database query")
+                .register(registry);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.klokov.backend.service.implementation;
+
+import java.util.Locale;
+
+/**
+ * LIKE patterns for a name search. The query is lower-cased like the indexed
+ * expression, and {@code !}, {@code %} and {@code _} are escaped with {@code !}.
+ */
+record NameSearchPattern(String query, String pattern, String prefix) {
+    /**
+     * Queries shorter than a trigram cannot use the trigram index, so they are only
+     * matched as name prefixes.
+     */
+    private static final int SUBSTRING_MIN_LENGTH = 3;
+
+    static NameSearchPattern of(String query) {
+        String normalizedQuery = query.toLowerCase(Locale.ROOT);
+        String escapedQuery = normalizedQuery
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+
+        String pattern = normalizedQuery.length() < SUBSTRING_MIN_LENGTH
+                ? escapedQuery + "%"
+                : "%" + escapedQuery + "%";
+
+        return new NameSearchPattern(normalizedQuery, pattern, escapedQuery + "%");
+    }
+}
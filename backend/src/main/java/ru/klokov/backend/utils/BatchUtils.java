@@ -0,0 +1,50 @@
+package ru.klokov.backend.utils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import ru.klokov.backend.exception.ParameterValidationException;
+
+@Component
+public class BatchUtils {
+    @Value("${lookup.batch.max-size}")
+    private int BATCH_SIZE_MAX_VALUE;
+
+    /**
+     * Parses a comma-separated list of ids. Repeated ids are dropped, the order of
+     * the first occurrences is kept.
+     */
+    public List<Long> getIds(String idsParam) {
+        if (idsParam == null || idsParam.isBlank())
+            throw invalidIds();
+
+        Set<Long> ids = new LinkedHashSet<>();
+
+        try {
+            for (String id : idsParam.split(","))
+                ids.add(Long.parseLong(id.trim()));
+        } catch (NumberFormatException e) {
+            throw invalidIds();
+        }
+
+        if (ids.size() > BATCH_SIZE_MAX_VALUE)
+            throw invalidIds();
+
+        return new ArrayList<>(ids);
+    }
+
+    private ParameterValidationException invalidIds() {
+        return new ParameterValidationException(
+                HttpStatus.BAD_REQUEST,
+                String.format("Некорректный параметр \"Идентификаторы\" (допустимо от 1 до %d)",
+                        BATCH_SIZE_MAX_VALUE),
+                Instant.now());
+    }
+}
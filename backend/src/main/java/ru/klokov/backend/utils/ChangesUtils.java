@@ -0,0 +1,64 @@
+package ru.klokov.backend.utils;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import ru.klokov.backend.exception.ParameterValidationException;
+
+@Component
+public class ChangesUtils {
+    @Value("${changes.default-limit}")
+    private int CHANGES_LIMIT_DEFAULT_VALUE;
+
+    @Value("${changes.max-limit}")
+    private int CHANGES_LIMIT_MAX_VALUE;
+
+    /**
+     * A client without local state starts from revision {@code 0}.
+     */
+    public long getRevision(String revisionParam) {
+        if (revisionParam != null && !revisionParam.isBlank()) {
+            try {
+                long revision = Long.parseLong(revisionParam.trim());
+                if (revision >= 0)
+                    return revision;
+            } catch (NumberFormatException e) {
+                // reported below
+            }
+        }
+
+        throw new ParameterValidationException(
+                HttpStatus.BAD_REQUEST,
+                "Некорректный параметр \"Ревизия\"",
+                Instant.now());
+    }
+
+    public int getChangesLimit(String changesLimitParam) {
+        if (changesLimitParam == null || changesLimitParam.isBlank())
+            return CHANGES_LIMIT_DEFAULT_VALUE;
+
+        int limit;
+
+        try {
+            limit = Integer.parseInt(changesLimitParam);
+        } catch (NumberFormatException e) {
+            throw invalidChangesLimit();
+        }
+
+        if (limit < 1 || limit > CHANGES_LIMIT_MAX_VALUE)
+            throw invalidChangesLimit();
+
+        return limit;
+    }
+
+    private ParameterValidationException invalidChangesLimit() {
+        return new ParameterValidationException(
+                HttpStatus.BAD_REQUEST,
+                String.format("Некорректный параметр \"Количество изменений\" (допустимо от 1 до %d)",
+                        CHANGES_LIMIT_MAX_VALUE),
+                Instant.now());
+    }
+}
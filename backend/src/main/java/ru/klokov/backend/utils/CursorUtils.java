@@ -0,0 +1,109 @@
+package ru.klokov.backend.utils;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ru.klokov.backend.exception.ParameterValidationException;
+
+/**
+ * Encodes keyset scroll positions into opaque continuation tokens and back.
+ * <p>
+ * A token is a URL-safe Base64 JSON object that maps every keyset property to its
+ * value prefixed with a one-letter type tag, so that the decoded keys keep the Java
+ * types of the entity attributes they are compared against. A token is accepted only
+ * if it holds exactly the keys of the requested sort, the sort field and {@code id},
+ * each with the type of its attribute.
+ */
+public class CursorUtils {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<LinkedHashMap<String, String>> KEYS_TYPE = new TypeReference<>() {
+    };
+
+    public static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keysetPosition) || keysetPosition.isInitial())
+            return null;
+
+        Map<String, String> keys = new LinkedHashMap<>();
+        keysetPosition.getKeys().forEach((key, value) -> keys.put(key, encodeValue(value)));
+
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(OBJECT_MAPPER.writeValueAsBytes(keys));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to encode scroll position", e);
+        }
+    }
+
+    public static KeysetScrollPosition decode(String cursor, String sortField) {
+        if (cursor == null || cursor.isBlank())
+            return ScrollPosition.keyset();
+
+        SortField field = SortField.of(sortField);
+        Set<String> expectedKeys = field == SortField.ID
+                ? Set.of(SortField.ID.getProperty())
+                : Set.of(field.getProperty(), SortField.ID.getProperty());
+
+        try {
+            Map<String, String> keys = OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), KEYS_TYPE);
+
+            if (keys == null || !keys.keySet().equals(expectedKeys))
+                throw invalidCursor();
+
+            Map<String, Object> decodedKeys = new LinkedHashMap<>();
+            keys.forEach((key, value) -> decodedKeys.put(key, decodeValue(value, SortField.of(key).getType())));
+
+            return ScrollPosition.forward(decodedKeys);
+        } catch (IllegalArgumentException | DateTimeException | IOException e) {
+            throw invalidCursor();
+        }
+    }
+
+    private static String encodeValue(Object value) {
+        if (value instanceof Long || value instanceof Integer)
+            return "L" + value;
+        if (value instanceof Instant)
+            return "T" + value;
+        if (value instanceof String)
+            return "S" + value;
+
+        throw new IllegalStateException("Unsupported keyset value type: " + value.getClass().getName());
+    }
+
+    private static Object decodeValue(String value, Class<?> type) {
+        if (value == null || value.isEmpty())
+            throw invalidCursor();
+
+        String payload = value.substring(1);
+
+        Object decodedValue = switch (value.charAt(0)) {
+            case 'L' -> Long.parseLong(payload);
+            case 'T' -> Instant.parse(payload);
+            case 'S' -> payload;
+            default -> throw invalidCursor();
+        };
+
+        if (!type.isInstance(decodedValue))
+            throw invalidCursor();
+
+        return decodedValue;
+    }
+
+    private static ParameterValidationException invalidCursor() {
+        return new ParameterValidationException(
+                HttpStatus.BAD_REQUEST,
+                "Некорректный параметр \"Курсор\"",
+                Instant.now());
+    }
+}
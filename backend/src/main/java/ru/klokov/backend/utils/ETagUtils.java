@@ -0,0 +1,85 @@
+package ru.klokov.backend.utils;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
+
+import ru.klokov.backend.exception.ParameterValidationException;
+import ru.klokov.backend.model.EmitterType;
+
+/**
+ * Builds validators for conditional requests from the {@code version} and
+ * {@code updated_at} columns of emitter types.
+ * <p>
+ * A single emitter type is tagged with its version. A list is tagged with an MD5
+ * digest of its (id, version) pairs, so that any insert, update or delete changes
+ * the tag. Entities that have not been persisted yet have no validators.
+ * <p>
+ * The tags are weak: the same version is served as JSON, CBOR or Smile and may be
+ * compressed, so the bytes differ while the data does not. Weak tags also let the
+ * servlet container compress responses that carry them.
+ */
+public class ETagUtils {
+    public static String getETag(EmitterType emitterType) {
+        return emitterType.getVersion() == null ? null : "W/\"" + emitterType.getVersion() + "\"";
+    }
+
+    public static String getETag(List<EmitterType> emitterTypes) {
+        ByteBuffer buffer = ByteBuffer.allocate(emitterTypes.size() * 2 * Long.BYTES);
+
+        for (EmitterType emitterType : emitterTypes) {
+            if (emitterType.getId() == null || emitterType.getVersion() == null)
+                return null;
+
+            buffer.putLong(emitterType.getId()).putLong(emitterType.getVersion());
+        }
+
+        return "W/\"" + DigestUtils.md5DigestAsHex(buffer.array()) + "\"";
+    }
+
+    public static long getLastModified(EmitterType emitterType) {
+        return emitterType.getUpdatedAt() == null ? -1 : emitterType.getUpdatedAt().toEpochMilli();
+    }
+
+    public static long getLastModified(List<EmitterType> emitterTypes) {
+        return emitterTypes.stream()
+                .map(EmitterType::getUpdatedAt)
+                .filter(updatedAt -> updatedAt != null)
+                .mapToLong(Instant::toEpochMilli)
+                .max()
+                .orElse(-1);
+    }
+
+    /**
+     * Returns the version an {@code If-Match} header requires, or {@code null} when
+     * the header is absent or is {@code *}. The weak flag is ignored, because the tag
+     * identifies the row version rather than a byte representation.
+     */
+    public static Long getExpectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*"))
+            return null;
+
+        String eTag = ifMatch.trim();
+        if (eTag.startsWith("W/"))
+            eTag = eTag.substring(2);
+
+        if (eTag.length() < 3 || !eTag.startsWith("\"") || !eTag.endsWith("\""))
+            throw invalidIfMatch();
+
+        try {
+            return Long.parseLong(eTag.substring(1, eTag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw invalidIfMatch();
+        }
+    }
+
+    private static ParameterValidationException invalidIfMatch() {
+        return new ParameterValidationException(
+                HttpStatus.BAD_REQUEST,
+                "Некорректный заголовок \"If-Match\"",
+                Instant.now());
+    }
+}
@@ -0,0 +1,81 @@
+package ru.klokov.backend.utils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ru.klokov.backend.dto.emittertype.EmitterTypeResponse;
+
+/**
+ * Writes emitter types to a response stream one row at a time and flushes the
+ * underlying stream every {@code flushInterval} rows, so memory usage does not
+ * depend on the number of exported rows.
+ */
+public class EmitterTypeExportWriter implements Closeable {
+    static final String CSV_HEADER = "id,name";
+
+    private final ExportFormat format;
+    private final Writer writer;
+    private final JsonGenerator generator;
+    private final int flushInterval;
+    private long rowCount;
+
+    public EmitterTypeExportWriter(ExportFormat format, OutputStream outputStream, ObjectMapper objectMapper,
+            int flushInterval) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        this.generator = objectMapper.getFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                .setRootValueSeparator(null);
+        this.flushInterval = flushInterval;
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    public void write(EmitterTypeResponse emitterType) {
+        try {
+            if (format == ExportFormat.CSV) {
+                writer.write(String.valueOf(emitterType.getId()));
+                writer.write(',');
+                writer.write(escapeCsv(emitterType.getName()));
+            } else {
+                generator.writeObject(emitterType);
+                generator.flush();
+            }
+            writer.write('\n');
+
+            if (++rowCount % flushInterval == 0)
+                writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+        writer.flush();
+    }
+
+    static String escapeCsv(String value) {
+        if (value == null)
+            return "";
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+            return value;
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,35 @@
+package ru.klokov.backend.utils;
+
+import java.time.Instant;
+
+import org.springframework.http.HttpStatus;
+
+import ru.klokov.backend.exception.ParameterValidationException;
+
+/**
+ * Resolves where a change feed subscription starts. A reconnecting
+ * {@code EventSource} sends the id of the last event it received in the
+ * {@code Last-Event-ID} header, which takes precedence over the {@code since}
+ * parameter of the first request.
+ */
+public class EventUtils {
+    public static Long getLastSequenceNumber(String lastEventId, String since) {
+        String value = lastEventId != null && !lastEventId.isBlank() ? lastEventId : since;
+
+        if (value == null || value.isBlank())
+            return null;
+
+        try {
+            long sequenceNumber = Long.parseLong(value.trim());
+            if (sequenceNumber >= 0)
+                return sequenceNumber;
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+
+        throw new ParameterValidationException(
+                HttpStatus.BAD_REQUEST,
+                "Некорректный параметр \"Последнее событие\"",
+                Instant.now());
+    }
+}
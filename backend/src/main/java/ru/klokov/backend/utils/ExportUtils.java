@@ -0,0 +1,67 @@
+package ru.klokov.backend.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import ru.klokov.backend.dto.emittertype.EmitterTypeResponse;
+import ru.klokov.backend.exception.ParameterValidationException;
+
+@Component
+@RequiredArgsConstructor
+public class ExportUtils {
+    private final ObjectMapper objectMapper;
+
+    @Value("${export.flush-interval}")
+    private int EXPORT_FLUSH_INTERVAL;
+
+    public ExportFormat getExportFormat(String exportFormatParam) {
+        if (exportFormatParam == null || exportFormatParam.isBlank())
+            return ExportFormat.NDJSON;
+
+        for (ExportFormat format : ExportFormat.values()) {
+            if (format.getExtension().equalsIgnoreCase(exportFormatParam))
+                return format;
+        }
+
+        throw new ParameterValidationException(
+                HttpStatus.BAD_REQUEST,
+                "Некорректный параметр \"Формат выгрузки\"",
+                Instant.now());
+    }
+
+    public EmitterTypeExportWriter openWriter(ExportFormat format, OutputStream outputStream) throws IOException {
+        return new EmitterTypeExportWriter(format, outputStream, objectMapper, EXPORT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Text preceding the first row, or an empty string when the format has none.
+     */
+    public String formatHeader(ExportFormat format) {
+        return format == ExportFormat.CSV ? EmitterTypeExportWriter.CSV_HEADER + "\n" : "";
+    }
+
+    /**
+     * A single exported row including its line break, in the same format that
+     * {@link EmitterTypeExportWriter} writes.
+     */
+    public String formatRow(ExportFormat format, EmitterTypeResponse emitterType) {
+        if (format == ExportFormat.CSV)
+            return emitterType.getId() + "," + EmitterTypeExportWriter.escapeCsv(emitterType.getName()) + "\n";
+
+        try {
+            return objectMapper.writeValueAsString(emitterType) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.klokov.backend.utils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allows at most {@code permits} log statements per interval and counts the
+ * statements that were suppressed in between.
+ */
+public class LogRateLimiter {
+    private final int permits;
+    private final long intervalNanos;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogRateLimiter(int permits, Duration interval) {
+        this.permits = permits;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+
+        if (now - start >= intervalNanos && windowStart.compareAndSet(start, now))
+            used.set(0);
+
+        if (used.incrementAndGet() <= permits)
+            return true;
+
+        suppressed.incrementAndGet();
+        return false;
+    }
+
+    public long drainSuppressed() {
+        return suppressed.getAndSet(0);
+    }
+}
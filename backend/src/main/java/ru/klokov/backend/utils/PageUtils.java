@@ -16,45 +16,66 @@ public class PageUtils {
     @Value("${page.default.size}")
     private int PAGE_SIZE_DEFAULT_VALUE;
 
+    @Value("${page.max-size}")
+    private int PAGE_SIZE_MAX_VALUE;
+
     @Value("${page.default.sort.field}")
     private String PAGE_SORT_FIELD_DEFAULT_VALUE;
 
     @Value("${page.default.sort.direction}")
     private boolean PAGE_SORT_FIELD_DIRECTION_DEFAULT_VALUE;
 
+    @Value("${page.default.count}")
+    private String PAGE_COUNT_DEFAULT_VALUE;
+
     public int getPageNumber(String pageNumberParam) {
         if (pageNumberParam != null && !pageNumberParam.isBlank()) {
             try {
-                return Integer.parseInt(pageNumberParam);
+                int pageNumber = Integer.parseInt(pageNumberParam);
+                if (pageNumber >= 1)
+                    return pageNumber;
             } catch (NumberFormatException e) {
-                throw new ParameterValidationException(
-                        HttpStatus.BAD_REQUEST,
-                        "Некорректный параметр \"Номер страницы\"",
-                        Instant.now());
+                // reported below
             }
+
+            throw new ParameterValidationException(
+                    HttpStatus.BAD_REQUEST,
+                    "Некорректный параметр \"Номер страницы\"",
+                    Instant.now());
         }
 
         return PAGE_NUMBER_DEFAULT_VALUE;
     }
 
+    /**
+     * Sizes above {@code page.max-size} are rejected rather than capped, so a client
+     * never gets fewer rows than it asked for without noticing.
+     */
     public int getPageSize(String pageSizeParam) {
         if (pageSizeParam != null && !pageSizeParam.isBlank()) {
             try {
-                return Integer.parseInt(pageSizeParam);
+                int pageSize = Integer.parseInt(pageSizeParam);
+                if (pageSize >= 1 && pageSize <= PAGE_SIZE_MAX_VALUE)
+                    return pageSize;
             } catch (NumberFormatException e) {
-                throw new ParameterValidationException(
-                        HttpStatus.BAD_REQUEST,
-                        "Некорректный параметр \"Количество элементов на странице\"",
-                        Instant.now());
+                // reported below
             }
+
+            throw new ParameterValidationException(
+                    HttpStatus.BAD_REQUEST,
+                    "Некорректный параметр \"Количество элементов на странице\"",
+                    Instant.now());
         }
 
         return PAGE_SIZE_DEFAULT_VALUE;
     }
 
+    /**
+     * Only the fields declared in {@link SortField} are accepted.
+     */
     public String getPageSortField(String pageSortFieldParam) {
         if (pageSortFieldParam != null && !pageSortFieldParam.isBlank())
-            return pageSortFieldParam;
+            return SortField.of(pageSortFieldParam).getProperty();
 
         return PAGE_SORT_FIELD_DEFAULT_VALUE;
     }
@@ -65,4 +86,25 @@ public class PageUtils {
 
         return PAGE_SORT_FIELD_DIRECTION_DEFAULT_VALUE;
     }
+
+    /**
+     * {@code exact} counts the rows for every page, {@code approximate} takes the
+     * total from the maintained emitter type count.
+     */
+    public boolean isPageCountExact(String pageCountParam) {
+        String pageCount = pageCountParam != null && !pageCountParam.isBlank()
+                ? pageCountParam
+                : PAGE_COUNT_DEFAULT_VALUE;
+
+        if ("exact".equalsIgnoreCase(pageCount))
+            return true;
+
+        if ("approximate".equalsIgnoreCase(pageCount))
+            return false;
+
+        throw new ParameterValidationException(
+                HttpStatus.BAD_REQUEST,
+                "Некорректный параметр \"Подсчет количества элементов\"",
+                Instant.now());
+    }
 }
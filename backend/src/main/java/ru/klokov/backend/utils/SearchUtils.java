@@ -0,0 +1,54 @@
+package ru.klokov.backend.utils;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import ru.klokov.backend.exception.ParameterValidationException;
+
+@Component
+public class SearchUtils {
+    @Value("${search.default-limit}")
+    private int SEARCH_LIMIT_DEFAULT_VALUE;
+
+    @Value("${search.max-limit}")
+    private int SEARCH_LIMIT_MAX_VALUE;
+
+    public String getSearchQuery(String searchQueryParam) {
+        if (searchQueryParam == null || searchQueryParam.isBlank())
+            throw new ParameterValidationException(
+                    HttpStatus.BAD_REQUEST,
+                    "Некорректный параметр \"Строка поиска\"",
+                    Instant.now());
+
+        return searchQueryParam.trim();
+    }
+
+    public int getSearchLimit(String searchLimitParam) {
+        if (searchLimitParam == null || searchLimitParam.isBlank())
+            return SEARCH_LIMIT_DEFAULT_VALUE;
+
+        int limit;
+
+        try {
+            limit = Integer.parseInt(searchLimitParam);
+        } catch (NumberFormatException e) {
+            throw invalidSearchLimit();
+        }
+
+        if (limit < 1 || limit > SEARCH_LIMIT_MAX_VALUE)
+            throw invalidSearchLimit();
+
+        return limit;
+    }
+
+    private ParameterValidationException invalidSearchLimit() {
+        return new ParameterValidationException(
+                HttpStatus.BAD_REQUEST,
+                String.format("Некорректный параметр \"Количество результатов\" (допустимо от 1 до %d)",
+                        SEARCH_LIMIT_MAX_VALUE),
+                Instant.now());
+    }
+}
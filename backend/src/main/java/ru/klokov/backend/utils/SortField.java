@@ -0,0 +1,54 @@
+package ru.klokov.backend.utils;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.klokov.backend.exception.ParameterValidationException;
+
+/**
+ * Fields emitter type pages can be sorted by. Every field other than {@code id} is
+ * paired with {@code id} as a tie-breaker and has a matching B-tree index, so a page
+ * is read in index order instead of sorting the whole table. Names are compared
+ * case-insensitively, which the index on {@code lower(type_name)} backs; keyset
+ * windows by name are therefore read by a dedicated seek query instead of through
+ * {@link #getSort(boolean)}. The type is
+ * the Java type of the entity attribute, which keyset cursors must carry.
+ */
+@AllArgsConstructor
+@Getter
+public enum SortField {
+    ID("id", "id", false, Long.class),
+    NAME("name", "lower(type_name)", true, String.class),
+    UPDATED_AT("updatedAt", "updated_at", false, Instant.class);
+
+    private final String property;
+    private final String column;
+    private final boolean ignoreCase;
+    private final Class<?> type;
+
+    public static SortField of(String property) {
+        for (SortField sortField : values()) {
+            if (sortField.property.equals(property))
+                return sortField;
+        }
+
+        throw new ParameterValidationException(
+                HttpStatus.BAD_REQUEST,
+                "Некорректный параметр \"Поле сортировки\"",
+                Instant.now());
+    }
+
+    public Sort getSort(boolean ascending) {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort.Order order = new Sort.Order(direction, property);
+
+        if (this == ID)
+            return Sort.by(order);
+
+        return Sort.by(ignoreCase ? order.ignoreCase() : order, new Sort.Order(direction, ID.property));
+    }
+}
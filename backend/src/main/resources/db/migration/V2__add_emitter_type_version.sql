@@ -0,0 +1,2 @@
+ALTER TABLE emitter_type ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE emitter_type ADD COLUMN updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
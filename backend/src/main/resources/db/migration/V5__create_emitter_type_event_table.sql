@@ -0,0 +1,17 @@
+CREATE TABLE IF NOT EXISTS emitter_type_event (
+    sequence_number BIGINT PRIMARY KEY,
+    event_type VARCHAR(16) NOT NULL,
+    emitter_type_id BIGINT NOT NULL,
+    type_name VARCHAR(255),
+    version BIGINT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_emitter_type_event_created_at ON emitter_type_event (created_at);
+
+CREATE TABLE IF NOT EXISTS emitter_type_event_sequence (
+    id INT PRIMARY KEY,
+    last_sequence_number BIGINT NOT NULL
+);
+
+INSERT INTO emitter_type_event_sequence (id, last_sequence_number) VALUES (1, 0);
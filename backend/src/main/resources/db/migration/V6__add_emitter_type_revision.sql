@@ -0,0 +1,23 @@
+-- Revisions come from the same counter as the event sequence numbers, so a revision
+-- is committed exactly when every lower one is. Existing rows are stamped with
+-- revisions past the current counter; subscribers of the change feed see the skipped
+-- sequence numbers as a gap and are told to resynchronize once.
+ALTER TABLE emitter_type ADD COLUMN IF NOT EXISTS revision BIGINT NOT NULL DEFAULT 0;
+
+UPDATE emitter_type SET revision = id + (SELECT last_sequence_number FROM emitter_type_event_sequence);
+
+UPDATE emitter_type_event_sequence
+SET last_sequence_number = last_sequence_number + (SELECT COALESCE(MAX(id), 0) FROM emitter_type);
+
+CREATE INDEX IF NOT EXISTS idx_emitter_type_revision ON emitter_type (revision);
+
+CREATE TABLE IF NOT EXISTS emitter_type_tombstone (
+    emitter_type_id BIGINT PRIMARY KEY,
+    revision BIGINT NOT NULL,
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_emitter_type_tombstone_revision ON emitter_type_tombstone (revision);
+
+-- Highest revision whose tombstones have been compacted away.
+ALTER TABLE emitter_type_event_sequence ADD COLUMN IF NOT EXISTS compacted_revision BIGINT NOT NULL DEFAULT 0;
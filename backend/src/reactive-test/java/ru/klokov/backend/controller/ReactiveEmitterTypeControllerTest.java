@@ -0,0 +1,181 @@
+package ru.klokov.backend.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.klokov.backend.dto.emittertype.EmitterTypeRequest;
+import ru.klokov.backend.dto.emittertype.EmitterTypeResponse;
+import ru.klokov.backend.exception.ExpectedServerException;
+import ru.klokov.backend.mapper.EmitterTypeMapper;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.service.ReactiveEmitterTypeService;
+import ru.klokov.backend.utils.ExportUtils;
+import ru.klokov.backend.utils.PageUtils;
+import ru.klokov.backend.utils.SearchUtils;
+
+@WebFluxTest(ReactiveEmitterTypeController.class)
+@Import({ ExportUtils.class, SearchUtils.class })
+public class ReactiveEmitterTypeControllerTest {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ReactiveEmitterTypeService emitterTypeService;
+
+    @MockitoBean
+    private EmitterTypeMapper mapper;
+
+    @MockitoBean
+    private PageUtils pageUtils;
+
+    @Test
+    @DisplayName("GET /api/v1/types/all streams emitter types as NDJSON")
+    void givenEmitterTypes_whenGetAllEmitterTypesAsNdjson_thenEachRowIsALine() {
+        // given
+        EmitterType emitterType1 = EmitterType.builder().id(1L).name("Type 1").build();
+        EmitterType emitterType2 = EmitterType.builder().id(2L).name("Type 2").build();
+
+        given(emitterTypeService.getAllEmitterTypes()).willReturn(Flux.just(emitterType1, emitterType2));
+        given(mapper.toEmitterTypeResponse(emitterType1)).willReturn(new EmitterTypeResponse(1L, "Type 1"));
+        given(mapper.toEmitterTypeResponse(emitterType2)).willReturn(new EmitterTypeResponse(2L, "Type 2"));
+
+        // when - then
+        webTestClient.get().uri("/api/v1/types/all")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(EmitterTypeResponse.class).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/export?format=csv streams CSV with header")
+    void givenEmitterTypes_whenExportCsv_thenCsvIsReturned() {
+        // given
+        EmitterType emitterType = EmitterType.builder().id(1L).name("Type, 1").build();
+
+        given(emitterTypeService.getAllEmitterTypes()).willReturn(Flux.just(emitterType));
+        given(mapper.toEmitterTypeResponse(emitterType)).willReturn(new EmitterTypeResponse(1L, "Type, 1"));
+
+        // when - then
+        webTestClient.get().uri("/api/v1/types/export?format=csv")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("text/csv")
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"emitter-types.csv\"")
+                .expectBody(String.class).isEqualTo("id,name\n1,\"Type, 1\"\n");
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types returns paged emitter type response")
+    void givenEmitterTypesPage_whenGetAllEmitterTypesPageable_thenReturnsPagedResponse() {
+        // given
+        EmitterType emitterType = EmitterType.builder().id(1L).name("Type 1").build();
+
+        given(pageUtils.getPageNumber(null)).willReturn(1);
+        given(pageUtils.getPageSize(null)).willReturn(5);
+        given(pageUtils.getPageSortField(null)).willReturn("id");
+        given(pageUtils.getPageSortDirection(null)).willReturn(true);
+        given(pageUtils.isPageCountExact(null)).willReturn(true);
+        given(emitterTypeService.getEmitterTypesPage(1, 5, "id", true, true))
+                .willReturn(Mono.just(new PageImpl<>(List.of(emitterType), PageRequest.of(0, 5), 12)));
+        given(mapper.toEmitterTypeResponse(emitterType)).willReturn(new EmitterTypeResponse(1L, "Type 1"));
+
+        // when - then
+        webTestClient.get().uri("/api/v1/types")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.pageNumber").isEqualTo(0)
+                .jsonPath("$.totalPages").isEqualTo(3)
+                .jsonPath("$.content[0].name").isEqualTo("Type 1");
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/{id} with matching If-None-Match returns 304")
+    void givenMatchingETag_whenGetEmitterTypeById_thenNotModified() {
+        // given
+        EmitterType emitterType = EmitterType.builder().id(1L).name("Type 1").version(3L).build();
+
+        given(emitterTypeService.getEmitterTypeById(1L)).willReturn(Mono.just(emitterType));
+
+        // when - then
+        webTestClient.get().uri("/api/v1/types/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/{id} of missing emitter type returns 404 with message")
+    void givenMissingEmitterType_whenGetEmitterTypeById_thenNotFound() {
+        // given
+        given(emitterTypeService.getEmitterTypeById(1L)).willReturn(Mono.error(new ExpectedServerException(
+                HttpStatus.NOT_FOUND, "Тип излучателя с идентификатором 1 не найден", Instant.now())));
+
+        // when - then
+        webTestClient.get().uri("/api/v1/types/1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Тип излучателя с идентификатором 1 не найден");
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/types with invalid body returns form validation errors")
+    void givenBlankName_whenCreateEmitterType_thenBadRequestWithErrors() {
+        // when - then
+        webTestClient.post().uri("/api/v1/types")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(EmitterTypeRequest.builder().name("").build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors.name").isNotEmpty();
+
+        verifyNoInteractions(emitterTypeService);
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/types creates emitter type")
+    void givenValidBody_whenCreateEmitterType_thenCreated() {
+        // given
+        EmitterType emitterType = EmitterType.builder().name("Type 1").build();
+        EmitterType created = EmitterType.builder().id(1L).name("Type 1").version(0L).build();
+
+        given(mapper.toEmitterType(any(EmitterTypeRequest.class))).willReturn(emitterType);
+        given(emitterTypeService.createEmitterType(emitterType)).willReturn(Mono.just(created));
+        given(mapper.toEmitterTypeResponse(created)).willReturn(new EmitterTypeResponse(1L, "Type 1"));
+
+        // when - then
+        webTestClient.post().uri("/api/v1/types")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(EmitterTypeRequest.builder().name("Type 1").build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1);
+    }
+}
@@ -0,0 +1,145 @@
+package ru.klokov.backend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.h2.CloseableConnectionFactory;
+import io.r2dbc.h2.H2ConnectionFactory;
+import ru.klokov.backend.model.EmitterType;
+
+class ReactiveEmitterTypeRepositoryTest {
+
+    private CloseableConnectionFactory connectionFactory;
+    private ReactiveEmitterTypeRepository emitterTypeRepository;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = H2ConnectionFactory.inMemory("reactive_" + UUID.randomUUID());
+        DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+
+        databaseClient.sql("""
+                CREATE TABLE emitter_type (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    type_name VARCHAR(255) NOT NULL UNIQUE,
+                    version BIGINT NOT NULL DEFAULT 0,
+                    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    revision BIGINT NOT NULL DEFAULT 0
+                )
+                """).then().block();
+
+        emitterTypeRepository = new ReactiveEmitterTypeRepository(databaseClient);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.close().block();
+    }
+
+    @Test
+    @DisplayName("Test insert returns generated id and version")
+    void givenNewName_whenInsert_thenGeneratedValuesAreReturned() {
+        // when
+        EmitterType inserted = emitterTypeRepository.insert("Type 1", 7L).block();
+
+        // then
+        assertThat(inserted.getId()).isNotNull();
+        assertThat(inserted.getVersion()).isZero();
+        assertThat(emitterTypeRepository.findById(inserted.getId()).block())
+                .satisfies(emitterType -> {
+                    assertThat(emitterType.getName()).isEqualTo("Type 1");
+                    assertThat(emitterType.getRevision()).isEqualTo(7L);
+                });
+    }
+
+    @Test
+    @DisplayName("Test insert of duplicate name is translated to DataIntegrityViolationException")
+    void givenExistingName_whenInsert_thenDataIntegrityViolationExceptionIsThrown() {
+        // given
+        emitterTypeRepository.insert("Type 1", 1L).block();
+
+        // when - then
+        assertThatThrownBy(() -> emitterTypeRepository.insert("Type 1", 1L).block())
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("Test find page sorts and skips rows")
+    void givenThreeEmitterTypes_whenFindSecondPageByNameDescending_thenRemainingRowIsReturned() {
+        // given
+        insertAll("Type A", "Type B", "Type C");
+
+        // when
+        List<EmitterType> page = emitterTypeRepository.findPage("lower(type_name)", false, 2, 2).collectList().block();
+
+        // then
+        assertThat(page).extracting(EmitterType::getName).containsExactly("Type A");
+        assertThat(emitterTypeRepository.count().block()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Test conditional update only applies to the expected version")
+    void givenStaleVersion_whenUpdateName_thenNoRowIsUpdated() {
+        // given
+        EmitterType inserted = emitterTypeRepository.insert("Type 1", 1L).block();
+        Long id = inserted.getId();
+
+        // when
+        EmitterType updated = emitterTypeRepository.updateName(id, 0L, "Type 2", Instant.now(), 2L).block();
+        EmitterType stale = emitterTypeRepository.updateName(id, 0L, "Type 3", Instant.now(), 3L).block();
+
+        // then
+        assertThat(stale).isNull();
+        assertThat(emitterTypeRepository.findById(id).block())
+                .satisfies(emitterType -> {
+                    assertThat(emitterType.getName()).isEqualTo("Type 2");
+                    assertThat(emitterType.getVersion()).isEqualTo(1).isEqualTo(updated.getVersion());
+                    assertThat(emitterType.getUpdatedAt()).isEqualTo(updated.getUpdatedAt());
+                    assertThat(emitterType.getRevision()).isEqualTo(2L);
+                });
+    }
+
+    @Test
+    @DisplayName("Test delete removes the row")
+    void givenSavedEmitterType_whenDelete_thenRowIsRemoved() {
+        // given
+        Long id = emitterTypeRepository.insert("Type 1", 1L).block().getId();
+
+        // when
+        Long deleted = emitterTypeRepository.delete(id, null).block();
+
+        // then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(emitterTypeRepository.existsById(id).block()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Test search ranks exact and prefix matches first")
+    void givenMatchingNames_whenSearchByName_thenExactAndPrefixMatchesComeFirst() {
+        // given
+        insertAll("Old radar", "Radar X", "Radar");
+
+        // when
+        List<EmitterType> found = emitterTypeRepository.searchByName("radar", "%radar%", "radar%", 10)
+                .collectList()
+                .block();
+
+        // then
+        assertThat(found).extracting(EmitterType::getName).containsExactly("Radar", "Radar X", "Old radar");
+    }
+
+    private void insertAll(String... names) {
+        for (String name : names)
+            emitterTypeRepository.insert(name, 0L).block();
+    }
+}
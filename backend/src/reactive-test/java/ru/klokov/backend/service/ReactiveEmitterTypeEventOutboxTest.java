@@ -0,0 +1,137 @@
+package ru.klokov.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.r2dbc.h2.CloseableConnectionFactory;
+import io.r2dbc.h2.H2ConnectionFactory;
+import reactor.core.publisher.Mono;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.service.implementation.ReactiveEmitterTypeEventOutbox;
+
+class ReactiveEmitterTypeEventOutboxTest {
+
+    private CloseableConnectionFactory connectionFactory;
+    private DatabaseClient databaseClient;
+    private TransactionalOperator transactionalOperator;
+    private ReactiveEmitterTypeEventOutbox emitterTypeEventOutbox;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        connectionFactory = H2ConnectionFactory.inMemory("reactive_outbox_" + UUID.randomUUID());
+        databaseClient = DatabaseClient.create(connectionFactory);
+        transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+
+        databaseClient.sql("""
+                CREATE TABLE emitter_type_event (
+                    sequence_number BIGINT PRIMARY KEY,
+                    event_type VARCHAR(16) NOT NULL,
+                    emitter_type_id BIGINT NOT NULL,
+                    type_name VARCHAR(255),
+                    version BIGINT,
+                    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+                )
+                """).then().block();
+        databaseClient.sql("""
+                CREATE TABLE emitter_type_event_sequence (
+                    id INT PRIMARY KEY,
+                    last_sequence_number BIGINT NOT NULL
+                )
+                """).then().block();
+        databaseClient.sql("INSERT INTO emitter_type_event_sequence (id, last_sequence_number) VALUES (1, 10)")
+                .then().block();
+        databaseClient.sql("""
+                CREATE TABLE emitter_type_tombstone (
+                    emitter_type_id BIGINT PRIMARY KEY,
+                    revision BIGINT NOT NULL,
+                    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL
+                )
+                """).then().block();
+
+        // No cache invalidation bus, so no pg_notify on the embedded database.
+        emitterTypeEventOutbox = new ReactiveEmitterTypeEventOutbox(databaseClient, mock(ObjectProvider.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.close().block();
+    }
+
+    @Test
+    @DisplayName("Test reserved revisions are consecutive and become event sequence numbers")
+    void givenTwoMutations_whenReserveRevisionsAndRecord_thenSequenceNumbersAreConsecutive() {
+        // when
+        Long createdRevision = emitterTypeEventOutbox.reserveRevisions(1)
+                .flatMap(revision -> emitterTypeEventOutbox.recordCreated(EmitterType.builder()
+                        .id(1L)
+                        .name("Type 1")
+                        .version(0L)
+                        .revision(revision)
+                        .build())
+                        .thenReturn(revision))
+                .as(transactionalOperator::transactional)
+                .block();
+        Long deletedRevision = emitterTypeEventOutbox.reserveRevisions(1)
+                .flatMap(revision -> emitterTypeEventOutbox.recordDeleted(1L, revision).thenReturn(revision))
+                .as(transactionalOperator::transactional)
+                .block();
+
+        // then
+        assertThat(createdRevision).isEqualTo(11L);
+        assertThat(deletedRevision).isEqualTo(12L);
+        assertThat(queryForList("SELECT sequence_number, event_type, type_name FROM emitter_type_event "
+                + "ORDER BY sequence_number"))
+                .extracting(
+                        row -> row.get("sequence_number"),
+                        row -> row.get("event_type"),
+                        row -> row.get("type_name"))
+                .containsExactly(
+                        tuple(11L, "CREATED", "Type 1"),
+                        tuple(12L, "DELETED", null));
+        assertThat(queryForList("SELECT emitter_type_id, revision FROM emitter_type_tombstone"))
+                .extracting(row -> row.get("emitter_type_id"), row -> row.get("revision"))
+                .containsExactly(tuple(1L, 12L));
+    }
+
+    @Test
+    @DisplayName("Test failed mutation rolls back its revision and event")
+    void givenFailingMutation_whenRecordInTransaction_thenNothingIsCommitted() {
+        // when
+        Mono<Void> mutation = emitterTypeEventOutbox.reserveRevisions(1)
+                .flatMap(revision -> emitterTypeEventOutbox.recordUpdated(EmitterType.builder()
+                        .id(1L)
+                        .name("Type 1")
+                        .version(1L)
+                        .revision(revision)
+                        .build()))
+                .then(Mono.<Void>error(new IllegalStateException("mutation failed")))
+                .as(transactionalOperator::transactional);
+
+        // then
+        assertThatThrownBy(mutation::block).isInstanceOf(IllegalStateException.class);
+        assertThat(queryForList("SELECT * FROM emitter_type_event")).isEmpty();
+        assertThat(queryForList("SELECT last_sequence_number FROM emitter_type_event_sequence"))
+                .extracting(row -> row.get("last_sequence_number"))
+                .containsExactly(10L);
+    }
+
+    private List<Map<String, Object>> queryForList(String sql) {
+        return databaseClient.sql(sql).fetch().all().collectList().block();
+    }
+}
@@ -0,0 +1,202 @@
+package ru.klokov.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.klokov.backend.exception.ExpectedServerException;
+import ru.klokov.backend.exception.ParameterValidationException;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.repository.ReactiveEmitterTypeRepository;
+import ru.klokov.backend.service.implementation.DefaultReactiveEmitterTypeService;
+import ru.klokov.backend.service.implementation.EmitterTypeCounter;
+import ru.klokov.backend.service.implementation.ReactiveEmitterTypeEventOutbox;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveEmitterTypeServiceTest {
+
+    @Mock
+    private ReactiveEmitterTypeRepository emitterTypeRepository;
+
+    @Mock
+    private ReactiveEmitterTypeEventOutbox emitterTypeEventOutbox;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private EmitterTypeCounter emitterTypeCounter;
+
+    @InjectMocks
+    private DefaultReactiveEmitterTypeService emitterTypeService;
+
+    @Test
+    @DisplayName("Test get emitter type by id functionality (not found)")
+    void givenMissingId_whenGetEmitterTypeById_thenNotFoundIsSignalled() {
+        // given
+        given(emitterTypeRepository.findById(1L)).willReturn(Mono.empty());
+
+        // when - then
+        assertThatThrownBy(() -> emitterTypeService.getEmitterTypeById(1L).block())
+                .isInstanceOf(ExpectedServerException.class)
+                .hasMessage("Тип излучателя с идентификатором 1 не найден")
+                .extracting("status")
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Test get emitter types page combines rows with total count")
+    void givenPageParameters_whenGetEmitterTypesPage_thenPageWithTotalIsReturned() {
+        // given
+        EmitterType emitterType = EmitterType.builder().id(6L).name("Type 6").build();
+
+        given(emitterTypeRepository.findPage("lower(type_name)", true, 5, 5)).willReturn(Flux.just(emitterType));
+        given(emitterTypeRepository.count()).willReturn(Mono.just(11L));
+
+        // when
+        Page<EmitterType> page = emitterTypeService.getEmitterTypesPage(2, 5, "name", true, true).block();
+
+        // then
+        assertThat(page.getContent()).containsExactly(emitterType);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        verify(emitterTypeCounter, never()).getCount();
+    }
+
+    @Test
+    @DisplayName("Test get emitter types page rejects unknown sort field")
+    void givenUnknownSortField_whenGetEmitterTypesPage_thenParameterValidationExceptionIsSignalled() {
+        // when - then
+        assertThatThrownBy(() -> emitterTypeService.getEmitterTypesPage(1, 5, "type_name; drop table", true, true)
+                .block())
+                .isInstanceOf(ParameterValidationException.class)
+                .hasMessage("Некорректный параметр \"Поле сортировки\"");
+    }
+
+    @Test
+    @DisplayName("Test create emitter type records the event in the same transaction")
+    void givenNewName_whenCreateEmitterType_thenRevisionIsStampedAndEventRecorded() {
+        // given
+        EmitterType created = EmitterType.builder().id(1L).name("Type 1").version(0L).revision(7L).build();
+
+        givenTransaction();
+        given(emitterTypeEventOutbox.reserveRevisions(1)).willReturn(Mono.just(7L));
+        given(emitterTypeRepository.insert("Type 1", 7L)).willReturn(Mono.just(created));
+        given(emitterTypeEventOutbox.recordCreated(created)).willReturn(Mono.empty());
+
+        // when
+        EmitterType result = emitterTypeService.createEmitterType(EmitterType.builder().name("Type 1").build()).block();
+
+        // then
+        assertThat(result).isSameAs(created);
+        verify(emitterTypeEventOutbox).recordCreated(created);
+        verify(emitterTypeCounter).adjust(1);
+    }
+
+    @Test
+    @DisplayName("Test create emitter type functionality (duplicate)")
+    void givenDuplicateName_whenCreateEmitterType_thenConflictIsSignalled() {
+        // given
+        givenTransaction();
+        given(emitterTypeEventOutbox.reserveRevisions(1)).willReturn(Mono.just(7L));
+        given(emitterTypeRepository.insert("Type 1", 7L))
+                .willReturn(Mono.error(new DataIntegrityViolationException("duplicate")));
+
+        // when - then
+        assertThatThrownBy(() -> emitterTypeService.createEmitterType(EmitterType.builder().name("Type 1").build())
+                .block())
+                .isInstanceOf(ExpectedServerException.class)
+                .extracting("status")
+                .isEqualTo(HttpStatus.CONFLICT);
+        verify(emitterTypeCounter, never()).adjust(1);
+        verify(emitterTypeEventOutbox, never()).recordCreated(any());
+    }
+
+    @Test
+    @DisplayName("Test update emitter type returns the stored version and records the event")
+    void givenMatchingVersion_whenUpdateEmitterType_thenStoredValuesAreReturnedAndEventRecorded() {
+        // given
+        EmitterType updated = EmitterType.builder()
+                .id(1L)
+                .name("Updated type")
+                .version(3L)
+                .updatedAt(Instant.parse("2024-01-01T00:00:00.123456Z"))
+                .revision(7L)
+                .build();
+
+        givenTransaction();
+        given(emitterTypeEventOutbox.reserveRevisions(1)).willReturn(Mono.just(7L));
+        given(emitterTypeRepository.updateName(eq(1L), eq(2L), eq("Updated type"), any(Instant.class), eq(7L)))
+                .willReturn(Mono.just(updated));
+        given(emitterTypeEventOutbox.recordUpdated(updated)).willReturn(Mono.empty());
+
+        // when
+        EmitterType result = emitterTypeService
+                .updateEmitterType(1L, EmitterType.builder().name("Updated type").build(), 2L)
+                .block();
+
+        // then
+        assertThat(result).isSameAs(updated);
+        verify(emitterTypeEventOutbox).recordUpdated(updated);
+    }
+
+    @Test
+    @DisplayName("Test update emitter type functionality (stale version)")
+    void givenStaleExpectedVersion_whenUpdateEmitterType_thenPreconditionFailedIsSignalled() {
+        // given
+        givenTransaction();
+        given(emitterTypeEventOutbox.reserveRevisions(1)).willReturn(Mono.just(7L));
+        given(emitterTypeRepository.updateName(eq(1L), eq(2L), eq("Updated type"), any(Instant.class), eq(7L)))
+                .willReturn(Mono.empty());
+        given(emitterTypeRepository.existsById(1L)).willReturn(Mono.just(true));
+
+        // when - then
+        assertThatThrownBy(() -> emitterTypeService
+                .updateEmitterType(1L, EmitterType.builder().name("Updated type").build(), 2L)
+                .block())
+                .isInstanceOf(ExpectedServerException.class)
+                .extracting("status")
+                .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        verify(emitterTypeEventOutbox, never()).recordUpdated(any());
+    }
+
+    @Test
+    @DisplayName("Test delete emitter type records the tombstone and adjusts the count")
+    void givenExistingEmitterType_whenDeleteEmitterType_thenTombstoneIsRecordedAndCountIsDecremented() {
+        // given
+        givenTransaction();
+        given(emitterTypeEventOutbox.reserveRevisions(1)).willReturn(Mono.just(7L));
+        given(emitterTypeRepository.delete(1L, null)).willReturn(Mono.just(1L));
+        given(emitterTypeEventOutbox.recordDeleted(1L, 7L)).willReturn(Mono.empty());
+
+        // when
+        emitterTypeService.deleteEmitterType(1L, null).block();
+
+        // then
+        verify(emitterTypeEventOutbox).recordDeleted(1L, 7L);
+        verify(emitterTypeCounter).adjust(-1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenTransaction() {
+        given(transactionalOperator.transactional(any(Mono.class))).willAnswer(invocation -> invocation.getArgument(0));
+    }
+}
@@ -0,0 +1,63 @@
+package ru.klokov.backend.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+
+/**
+ * R2DBC access for the reactive variant of the API, active when the application
+ * runs as a reactive web application (the {@code reactive} profile). The variant is
+ * only compiled by the {@code reactive} Maven profile, which also adds WebFlux and
+ * R2DBC to the classpath.
+ * <p>
+ * The pool is deliberately not registered as a {@link ConnectionFactory} bean:
+ * Spring Boot backs off its JDBC {@code DataSource} as soon as one exists, and
+ * Flyway and the JPA beans still need it. For the same reason only a
+ * {@link TransactionalOperator} is exposed for R2DBC transactions: a second
+ * transaction manager bean would make the JPA {@code @Transactional} ambiguous.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveConfig implements DisposableBean {
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(R2dbcProperties properties) {
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+
+        R2dbcProperties.Pool pool = properties.getPool();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build());
+
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(DatabaseClient reactiveDatabaseClient) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(reactiveDatabaseClient.getConnectionFactory()));
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null)
+            connectionPool.dispose();
+    }
+}
@@ -0,0 +1,184 @@
+package ru.klokov.backend.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.klokov.backend.dto.PagedResponse;
+import ru.klokov.backend.dto.emittertype.EmitterTypeRequest;
+import ru.klokov.backend.dto.emittertype.EmitterTypeResponse;
+import ru.klokov.backend.exception.FormValidationException;
+import ru.klokov.backend.mapper.EmitterTypeMapper;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.service.ReactiveEmitterTypeService;
+import ru.klokov.backend.utils.ETagUtils;
+import ru.klokov.backend.utils.ExportFormat;
+import ru.klokov.backend.utils.ExportUtils;
+import ru.klokov.backend.utils.PageUtils;
+import ru.klokov.backend.utils.SearchUtils;
+import ru.klokov.backend.utils.ValidationUtils;
+
+/**
+ * WebFlux variant of {@link EmitterTypeController}, active when the application
+ * runs as a reactive web application. List endpoints stream rows as the database
+ * returns them and only fetch more when the client keeps up. Keyset scrolling, bulk
+ * import, batch lookup, the change feed and delta synchronization are only served
+ * by the servlet variant, and changes made through this variant are neither written
+ * to the change feed outbox nor stamped with a revision.
+ */
+@RestController
+@RequestMapping("/api/v1/types")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveEmitterTypeController {
+
+    private final ReactiveEmitterTypeService emitterTypeService;
+    private final EmitterTypeMapper mapper;
+    private final PageUtils pageUtils;
+    private final ExportUtils exportUtils;
+    private final SearchUtils searchUtils;
+
+    /**
+     * Unlike the servlet variant the response is not buffered to compute an ETag.
+     * With {@code Accept: application/x-ndjson} every row is flushed on its own.
+     */
+    @GetMapping("/all")
+    public Flux<EmitterTypeResponse> getAllEmitterTypes() {
+        return emitterTypeService.getAllEmitterTypes().map(mapper::toEmitterTypeResponse);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<Flux<String>> exportEmitterTypes(
+            @RequestParam(value = "format", required = false) String format) {
+
+        ExportFormat exportFormat = exportUtils.getExportFormat(format);
+
+        Flux<String> rows = emitterTypeService.getAllEmitterTypes()
+                .map(emitterType -> exportUtils.formatRow(exportFormat, mapper.toEmitterTypeResponse(emitterType)));
+        String header = exportUtils.formatHeader(exportFormat);
+
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(exportFormat.getContentType()),
+                        StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        String.format("attachment; filename=\"emitter-types.%s\"", exportFormat.getExtension()))
+                .body(header.isEmpty() ? rows : Flux.concat(Mono.just(header), rows));
+    }
+
+    @GetMapping
+    public Mono<PagedResponse<EmitterTypeResponse>> getAllEmitterTypesPageable(
+            @RequestParam(value = "page", required = false) String page,
+            @RequestParam(value = "size", required = false) String size,
+            @RequestParam(value = "field", required = false) String field,
+            @RequestParam(value = "direction", required = false) String direction,
+            @RequestParam(value = "count", required = false) String count) {
+
+        return emitterTypeService.getEmitterTypesPage(
+                pageUtils.getPageNumber(page),
+                pageUtils.getPageSize(size),
+                pageUtils.getPageSortField(field),
+                pageUtils.getPageSortDirection(direction),
+                pageUtils.isPageCountExact(count))
+                .map(responsePage -> new PagedResponse<>(
+                        responsePage.getNumber(),
+                        responsePage.getTotalPages(),
+                        responsePage.map(mapper::toEmitterTypeResponse).getContent()));
+    }
+
+    @GetMapping("/search")
+    public Flux<EmitterTypeResponse> searchEmitterTypes(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "limit", required = false) String limit) {
+
+        return emitterTypeService.searchEmitterTypes(
+                searchUtils.getSearchQuery(query),
+                searchUtils.getSearchLimit(limit))
+                .map(mapper::toEmitterTypeResponse);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<EmitterTypeResponse>> getEmitterTypeById(@PathVariable("id") Long id,
+            ServerWebExchange exchange) {
+
+        return emitterTypeService.getEmitterTypeById(id)
+                .filter(emitterType -> !isNotModified(exchange, emitterType))
+                .map(emitterType -> ResponseEntity.ok(mapper.toEmitterTypeResponse(emitterType)));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<EmitterTypeResponse>> createEmitterType(
+            @RequestBody @Valid Mono<EmitterTypeRequest> emitterTypeRequest) {
+
+        return validated(emitterTypeRequest)
+                .map(mapper::toEmitterType)
+                .flatMap(emitterTypeService::createEmitterType)
+                .map(emitterType -> new ResponseEntity<>(mapper.toEmitterTypeResponse(emitterType), HttpStatus.CREATED));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<EmitterTypeResponse>> editEmitterType(@PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody @Valid Mono<EmitterTypeRequest> emitterTypeRequest) {
+
+        Long expectedVersion = ETagUtils.getExpectedVersion(ifMatch);
+
+        return validated(emitterTypeRequest)
+                .map(mapper::toEmitterType)
+                .flatMap(emitterType -> emitterTypeService.updateEmitterType(id, emitterType, expectedVersion))
+                .map(updatedEmitterType -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    String eTag = ETagUtils.getETag(updatedEmitterType);
+                    if (eTag != null)
+                        response.eTag(eTag);
+
+                    return response.body(mapper.toEmitterTypeResponse(updatedEmitterType));
+                });
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> deleteEmitterType(@PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        return emitterTypeService.deleteEmitterType(id, ETagUtils.getExpectedVersion(ifMatch))
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok(
+                        String.format("Тип излучателя с идентификатором %d успешно удален", id))));
+    }
+
+    private static boolean isNotModified(ServerWebExchange exchange, EmitterType emitterType) {
+        String eTag = ETagUtils.getETag(emitterType);
+        long lastModified = ETagUtils.getLastModified(emitterType);
+
+        if (lastModified < 0)
+            return eTag != null && exchange.checkNotModified(eTag);
+
+        return exchange.checkNotModified(eTag, Instant.ofEpochMilli(lastModified));
+    }
+
+    private static Mono<EmitterTypeRequest> validated(Mono<EmitterTypeRequest> emitterTypeRequest) {
+        return emitterTypeRequest.onErrorMap(WebExchangeBindException.class, exception -> new FormValidationException(
+                HttpStatus.BAD_REQUEST,
+                ValidationUtils.getErrorMessages(exception.getFieldErrors()),
+                Instant.now()));
+    }
+}
@@ -0,0 +1,171 @@
+package ru.klokov.backend.repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.klokov.backend.model.EmitterType;
+
+/**
+ * R2DBC counterpart of {@link EmitterTypeRepository} for the reactive variant of
+ * the API. Statements mirror the JPQL queries of the JPA repository; sort columns
+ * must already be resolved against a whitelist by the caller.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveEmitterTypeRepository {
+    private static final String COLUMNS = "id, type_name, version, updated_at, revision";
+    private static final int FETCH_SIZE = 500;
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Rows are fetched {@code FETCH_SIZE} at a time as the subscriber requests them,
+     * so a slow client slows down the query instead of buffering the table.
+     */
+    public Flux<EmitterType> findAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM emitter_type ORDER BY id")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveEmitterTypeRepository::toEmitterType)
+                .all();
+    }
+
+    public Mono<EmitterType> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM emitter_type WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveEmitterTypeRepository::toEmitterType)
+                .one();
+    }
+
+    public Flux<EmitterType> findPage(String sortColumn, boolean sortAsc, int limit, long offset) {
+        String direction = sortAsc ? "ASC" : "DESC";
+        String orderBy = "id".equals(sortColumn)
+                ? "id " + direction
+                : sortColumn + " " + direction + ", id " + direction;
+
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM emitter_type ORDER BY " + orderBy
+                + " LIMIT :limit OFFSET :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveEmitterTypeRepository::toEmitterType)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT count(*) FROM emitter_type")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("SELECT 1 FROM emitter_type WHERE id = :id")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE)
+                .one()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    /**
+     * Same ranking as {@link EmitterTypeRepository#searchByName}.
+     */
+    public Flux<EmitterType> searchByName(String query, String pattern, String prefix, int limit) {
+        return databaseClient.sql("""
+                SELECT %s FROM emitter_type
+                WHERE lower(type_name) LIKE :pattern ESCAPE '!'
+                ORDER BY
+                    CASE
+                        WHEN lower(type_name) = :query THEN 0
+                        WHEN lower(type_name) LIKE :prefix ESCAPE '!' THEN 1
+                        ELSE 2
+                    END,
+                    length(type_name),
+                    type_name
+                LIMIT :limit
+                """.formatted(COLUMNS))
+                .bind("query", query)
+                .bind("pattern", pattern)
+                .bind("prefix", prefix)
+                .bind("limit", limit)
+                .map(ReactiveEmitterTypeRepository::toEmitterType)
+                .all();
+    }
+
+    public Mono<EmitterType> insert(String name, long revision) {
+        return databaseClient.sql("INSERT INTO emitter_type (type_name, revision) VALUES (:name, :revision)")
+                .bind("name", name)
+                .bind("revision", revision)
+                .filter(statement -> statement.returnGeneratedValues("id", "version", "updated_at"))
+                .map(row -> EmitterType.builder()
+                        .id(row.get("id", Long.class))
+                        .name(name)
+                        .version(row.get("version", Long.class))
+                        .updatedAt(toInstant(row.get("updated_at", OffsetDateTime.class)))
+                        .revision(revision)
+                        .build())
+                .one();
+    }
+
+    /**
+     * Renames an emitter type, increments its version and stamps {@code revision}.
+     * When {@code version} is not {@code null} the row is only updated if it still
+     * has that version. The stored version and timestamp are read back by the same
+     * statement, {@code UPDATE ... RETURNING} on PostgreSQL; empty if no row matched.
+     */
+    public Mono<EmitterType> updateName(Long id, Long version, String name, Instant updatedAt, long revision) {
+        DatabaseClient.GenericExecuteSpec statement = databaseClient.sql(
+                "UPDATE emitter_type SET type_name = :name, version = version + 1, updated_at = :updatedAt, "
+                        + "revision = :revision WHERE id = :id" + (version == null ? "" : " AND version = :version"))
+                .bind("name", name)
+                .bind("updatedAt", updatedAt.atOffset(ZoneOffset.UTC))
+                .bind("revision", revision)
+                .bind("id", id);
+
+        if (version != null)
+            statement = statement.bind("version", version);
+
+        return statement
+                .filter(spec -> spec.returnGeneratedValues("version", "updated_at"))
+                .map(row -> EmitterType.builder()
+                        .id(id)
+                        .name(name)
+                        .version(row.get("version", Long.class))
+                        .updatedAt(toInstant(row.get("updated_at", OffsetDateTime.class)))
+                        .revision(revision)
+                        .build())
+                .one();
+    }
+
+    public Mono<Long> delete(Long id, Long version) {
+        DatabaseClient.GenericExecuteSpec statement = databaseClient.sql(
+                "DELETE FROM emitter_type WHERE id = :id" + (version == null ? "" : " AND version = :version"))
+                .bind("id", id);
+
+        if (version != null)
+            statement = statement.bind("version", version);
+
+        return statement.fetch().rowsUpdated();
+    }
+
+    private static EmitterType toEmitterType(Readable row) {
+        return EmitterType.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("type_name", String.class))
+                .version(row.get("version", Long.class))
+                .updatedAt(toInstant(row.get("updated_at", OffsetDateTime.class)))
+                .revision(row.get("revision", Long.class))
+                .build();
+    }
+
+    private static Instant toInstant(OffsetDateTime dateTime) {
+        return dateTime == null ? null : dateTime.toInstant();
+    }
+}
@@ -0,0 +1,24 @@
+package ru.klokov.backend.service;
+
+import org.springframework.data.domain.Page;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.klokov.backend.model.EmitterType;
+
+public interface ReactiveEmitterTypeService {
+    Flux<EmitterType> getAllEmitterTypes();
+
+    Mono<EmitterType> getEmitterTypeById(Long id);
+
+    Mono<Page<EmitterType>> getEmitterTypesPage(int pageNumber, int pageSize, String sortField, boolean sortAsc,
+            boolean exactCount);
+
+    Flux<EmitterType> searchEmitterTypes(String query, int limit);
+
+    Mono<EmitterType> createEmitterType(EmitterType emitterType);
+
+    Mono<EmitterType> updateEmitterType(Long id, EmitterType emitterType, Long expectedVersion);
+
+    Mono<Void> deleteEmitterType(Long id, Long expectedVersion);
+}
@@ -0,0 +1,163 @@
+package ru.klokov.backend.service.implementation;
+
+import java.time.Instant;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.klokov.backend.exception.ExpectedServerException;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.repository.ReactiveEmitterTypeRepository;
+import ru.klokov.backend.service.ReactiveEmitterTypeService;
+import ru.klokov.backend.utils.SortField;
+
+/**
+ * Non-blocking implementation of the emitter type operations on top of R2DBC. It
+ * keeps the error contract of {@link DefaultEmitterTypeService}; the emitter type
+ * caches are not used, because nothing in the reactive variant reads them.
+ * Mutations follow the same steps as the servlet variant in one R2DBC transaction:
+ * reserve a revision, change the row, then record the event, the tombstone of a
+ * deleted row and the cache invalidation through {@link ReactiveEmitterTypeEventOutbox}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class DefaultReactiveEmitterTypeService implements ReactiveEmitterTypeService {
+    private final ReactiveEmitterTypeRepository emitterTypeRepository;
+    private final ReactiveEmitterTypeEventOutbox emitterTypeEventOutbox;
+    private final TransactionalOperator transactionalOperator;
+    private final EmitterTypeCounter emitterTypeCounter;
+
+    @Override
+    public Flux<EmitterType> getAllEmitterTypes() {
+        log.info("Method getAllEmitterTypes executed");
+
+        return emitterTypeRepository.findAll();
+    }
+
+    @Override
+    public Mono<EmitterType> getEmitterTypeById(Long id) {
+        log.info("Method getEmitterTypeById executed with parameter {}", id);
+
+        return emitterTypeRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> notFound(id)));
+    }
+
+    @Override
+    public Mono<Page<EmitterType>> getEmitterTypesPage(int pageNumber, int pageSize, String sortField, boolean sortAsc,
+            boolean exactCount) {
+        log.info("Method getEmitterTypesPage executed with parameters {}, {}", pageNumber, exactCount);
+
+        PageRequest pageable = PageRequest.of(pageNumber - 1, pageSize);
+
+        return Mono.fromSupplier(() -> SortField.of(sortField))
+                .flatMap(field -> Mono.zip(
+                        emitterTypeRepository.findPage(field.getColumn(), sortAsc, pageSize, pageable.getOffset())
+                                .collectList(),
+                        countEmitterTypes(exactCount),
+                        (content, count) -> new PageImpl<>(content, pageable, count)));
+    }
+
+    /**
+     * The counter may have to load the count over JDBC the first time it is read.
+     */
+    private Mono<Long> countEmitterTypes(boolean exactCount) {
+        return exactCount
+                ? emitterTypeRepository.count()
+                : Mono.fromCallable(emitterTypeCounter::getCount).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<EmitterType> searchEmitterTypes(String query, int limit) {
+        log.info("Method searchEmitterTypes executed with parameters {}, {}", query, limit);
+
+        NameSearchPattern searchPattern = NameSearchPattern.of(query);
+
+        return emitterTypeRepository.searchByName(
+                searchPattern.query(), searchPattern.pattern(), searchPattern.prefix(), limit);
+    }
+
+    @Override
+    public Mono<EmitterType> createEmitterType(EmitterType emitterType) {
+        log.info("Method createEmitterType executed with parameter {}", emitterType);
+
+        return emitterTypeEventOutbox.reserveRevisions(1)
+                .flatMap(revision -> emitterTypeRepository.insert(emitterType.getName(), revision))
+                .flatMap(created -> emitterTypeEventOutbox.recordCreated(created).thenReturn(created))
+                .as(transactionalOperator::transactional)
+                .doOnNext(created -> emitterTypeCounter.adjust(1))
+                .onErrorMap(DataIntegrityViolationException.class, exception -> duplicateName(emitterType));
+    }
+
+    @Override
+    public Mono<EmitterType> updateEmitterType(Long id, EmitterType emitterType, Long expectedVersion) {
+        log.info("Method updateEmitterType executed with parameters {}, {}, {}", emitterType, id, expectedVersion);
+
+        return emitterTypeEventOutbox.reserveRevisions(1)
+                .flatMap(revision -> emitterTypeRepository.updateName(
+                        id, expectedVersion, emitterType.getName(), Instant.now(), revision))
+                .switchIfEmpty(Mono.defer(() -> notFoundOrVersionMismatch(id, expectedVersion)))
+                .flatMap(updated -> emitterTypeEventOutbox.recordUpdated(updated).thenReturn(updated))
+                .as(transactionalOperator::transactional)
+                .onErrorMap(DataIntegrityViolationException.class, exception -> duplicateName(emitterType));
+    }
+
+    @Override
+    public Mono<Void> deleteEmitterType(Long id, Long expectedVersion) {
+        log.info("Method deleteEmitterType executed with parameters {}, {}", id, expectedVersion);
+
+        return emitterTypeEventOutbox.reserveRevisions(1)
+                .flatMap(revision -> emitterTypeRepository.delete(id, expectedVersion)
+                        .filter(deleted -> deleted > 0)
+                        .switchIfEmpty(Mono.defer(() -> notFoundOrVersionMismatch(id, expectedVersion)))
+                        .flatMap(deleted -> emitterTypeEventOutbox.recordDeleted(id, revision).thenReturn(deleted)))
+                .as(transactionalOperator::transactional)
+                .doOnNext(deleted -> emitterTypeCounter.adjust(-1))
+                .then();
+    }
+
+    /**
+     * Explains why a conditional single-statement mutation affected no rows. The
+     * extra existence check only runs on this failure path.
+     */
+    private <T> Mono<T> notFoundOrVersionMismatch(Long id, Long expectedVersion) {
+        if (expectedVersion == null)
+            return Mono.error(notFound(id));
+
+        return emitterTypeRepository.existsById(id)
+                .flatMap(exists -> Mono.error(exists ? versionMismatch(id) : notFound(id)));
+    }
+
+    private static ExpectedServerException versionMismatch(Long id) {
+        return new ExpectedServerException(
+                HttpStatus.PRECONDITION_FAILED,
+                String.format("Тип излучателя с идентификатором %d был изменен другим пользователем", id),
+                Instant.now());
+    }
+
+    private static ExpectedServerException notFound(Long id) {
+        return new ExpectedServerException(
+                HttpStatus.NOT_FOUND,
+                String.format("Тип излучателя с идентификатором %d не найден", id),
+                Instant.now());
+    }
+
+    private static ExpectedServerException duplicateName(EmitterType emitterType) {
+        return new ExpectedServerException(
+                HttpStatus.CONFLICT,
+                String.format("Тип излучателя с названием \"%s\" уже существует", emitterType.getName()),
+                Instant.now());
+    }
+}
@@ -0,0 +1,98 @@
+package ru.klokov.backend.service.implementation;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.model.EmitterTypeEventType;
+
+/**
+ * R2DBC counterpart of {@link EmitterTypeEventOutbox} for the reactive variant. It
+ * writes the same revisions, events, tombstones and cache invalidation notifications,
+ * so both variants can serve the change feed and share the caches of servlet
+ * instances. Every method must run in the R2DBC transaction of the mutation; revisions
+ * are reserved before {@code emitter_type} is touched, in the same lock order.
+ * Purging and compaction stay with {@link EmitterTypeEventOutbox}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEmitterTypeEventOutbox {
+    private static final String INSERT_EVENT_SQL = "INSERT INTO emitter_type_event "
+            + "(sequence_number, event_type, emitter_type_id, type_name, version, created_at) "
+            + "VALUES (:sequenceNumber, :type, :emitterTypeId, :name, :version, :createdAt)";
+    private static final String INSERT_TOMBSTONE_SQL = "INSERT INTO emitter_type_tombstone "
+            + "(emitter_type_id, revision, deleted_at) VALUES (:emitterTypeId, :revision, :deletedAt)";
+
+    private final DatabaseClient databaseClient;
+    private final ObjectProvider<EmitterTypeCacheInvalidationBus> emitterTypeCacheInvalidationBus;
+
+    /**
+     * Reserves {@code count} consecutive revisions and emits the first one.
+     */
+    public Mono<Long> reserveRevisions(int count) {
+        return databaseClient.sql(
+                "UPDATE emitter_type_event_sequence SET last_sequence_number = last_sequence_number + :count")
+                .bind("count", count)
+                .then()
+                .then(databaseClient.sql("SELECT last_sequence_number FROM emitter_type_event_sequence")
+                        .map(row -> row.get(0, Long.class))
+                        .one())
+                .map(lastRevision -> lastRevision - count + 1);
+    }
+
+    public Mono<Void> recordCreated(EmitterType emitterType) {
+        return append(EmitterTypeEventType.CREATED, emitterType);
+    }
+
+    public Mono<Void> recordUpdated(EmitterType emitterType) {
+        return append(EmitterTypeEventType.UPDATED, emitterType);
+    }
+
+    public Mono<Void> recordDeleted(Long id, long revision) {
+        return append(EmitterTypeEventType.DELETED, EmitterType.builder().id(id).revision(revision).build())
+                .then(databaseClient.sql(INSERT_TOMBSTONE_SQL)
+                        .bind("emitterTypeId", id)
+                        .bind("revision", revision)
+                        .bind("deletedAt", Instant.now().atOffset(ZoneOffset.UTC))
+                        .then());
+    }
+
+    private Mono<Void> append(EmitterTypeEventType type, EmitterType emitterType) {
+        DatabaseClient.GenericExecuteSpec statement = databaseClient.sql(INSERT_EVENT_SQL)
+                .bind("sequenceNumber", emitterType.getRevision())
+                .bind("type", type.name())
+                .bind("emitterTypeId", emitterType.getId())
+                .bind("createdAt", Instant.now().atOffset(ZoneOffset.UTC));
+
+        statement = emitterType.getName() == null
+                ? statement.bindNull("name", String.class)
+                : statement.bind("name", emitterType.getName());
+        statement = emitterType.getVersion() == null
+                ? statement.bindNull("version", Long.class)
+                : statement.bind("version", emitterType.getVersion());
+
+        return statement.then().then(publish(type, emitterType));
+    }
+
+    private Mono<Void> publish(EmitterTypeEventType type, EmitterType emitterType) {
+        if (emitterTypeCacheInvalidationBus.getIfAvailable() == null)
+            return Mono.empty();
+
+        // Creations only affect the list cache, so no id is published for them.
+        Long id = type == EmitterTypeEventType.CREATED ? null : emitterType.getId();
+
+        return databaseClient.sql("SELECT pg_notify(:channel, :payload)")
+                .bind("channel", EmitterTypeCacheInvalidationBus.CHANNEL)
+                .bind("payload", EmitterTypeCacheInvalidationBus.payload(
+                        emitterType.getRevision(), emitterType.getRevision(), id))
+                .then();
+    }
+}
@@ -0,0 +1,128 @@
+package ru.klokov.backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ru.klokov.backend.config.AdaptiveConcurrencyLimiter.Priority;
+
+public class AdaptiveConcurrencyLimiterTest {
+    private static final long BASELINE_RTT = 10_000_000L;
+
+    @Test
+    @DisplayName("Test limiter rejects requests above the current limit")
+    void givenSaturatedLimiter_whenTryAcquire_thenRequestIsRejected() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.5);
+
+        // when
+        int first = limiter.tryAcquire(Priority.INTERACTIVE);
+        int second = limiter.tryAcquire(Priority.INTERACTIVE);
+        int third = limiter.tryAcquire(Priority.INTERACTIVE);
+
+        // then
+        assertThat(first).isZero();
+        assertThat(second).isEqualTo(1);
+        assertThat(third).isNegative();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Test bulk requests only use their share of the limit")
+    void givenBulkShare_whenTryAcquireBulk_thenInteractiveRequestsStillAdmitted() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 0.5);
+
+        // when
+        limiter.tryAcquire(Priority.BULK);
+        limiter.tryAcquire(Priority.BULK);
+        int rejectedBulk = limiter.tryAcquire(Priority.BULK);
+        int admittedInteractive = limiter.tryAcquire(Priority.INTERACTIVE);
+
+        // then
+        assertThat(rejectedBulk).isNegative();
+        assertThat(admittedInteractive).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Test limit grows while latency stays at baseline under load")
+    void givenStableLatencyUnderLoad_whenSamplesRecorded_thenLimitGrows() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 1.0);
+
+        // when
+        for (int i = 0; i < 50; i++)
+            saturateAndRelease(limiter, BASELINE_RTT);
+
+        // then
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    @DisplayName("Test limit shrinks when latency rises above baseline")
+    void givenRisingLatency_whenSamplesRecorded_thenLimitShrinks() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 100, 1.0);
+        for (int i = 0; i < 10; i++)
+            saturateAndRelease(limiter, BASELINE_RTT);
+        int limitBeforeSlowdown = limiter.getLimit();
+
+        // when
+        for (int i = 0; i < 10; i++)
+            saturateAndRelease(limiter, BASELINE_RTT * 10);
+
+        // then
+        assertThat(limiter.getLimit()).isLessThan(limitBeforeSlowdown);
+    }
+
+    @Test
+    @DisplayName("Test dropped requests back the limit off and are exposed as metrics")
+    void givenDroppedRequests_whenReleased_thenLimitBacksOffAndMetricsReflectState() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 1.0);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+
+        // when
+        for (int i = 0; i < 5; i++)
+            limiter.release(Priority.INTERACTIVE, limiter.tryAcquire(Priority.INTERACTIVE), BASELINE_RTT, true);
+
+        // then
+        assertThat(limiter.getLimit()).isLessThan(20).isGreaterThanOrEqualTo(4);
+        assertThat(registry.get("emitter.type.limiter.limit").gauge().value()).isEqualTo(limiter.getLimit());
+        assertThat(registry.get("emitter.type.limiter.inflight").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test slow bulk requests do not shrink the limit")
+    void givenSlowBulkRequests_whenSamplesRecorded_thenLimitIsKept() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 100, 1.0);
+        for (int i = 0; i < 10; i++)
+            saturateAndRelease(limiter, Priority.INTERACTIVE, BASELINE_RTT);
+        int limitBeforeBulk = limiter.getLimit();
+
+        // when
+        for (int i = 0; i < 10; i++)
+            saturateAndRelease(limiter, Priority.BULK, BASELINE_RTT * 100);
+
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(limitBeforeBulk);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private static void saturateAndRelease(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        saturateAndRelease(limiter, Priority.INTERACTIVE, rttNanos);
+    }
+
+    private static void saturateAndRelease(AdaptiveConcurrencyLimiter limiter, Priority priority, long rttNanos) {
+        int admitted = 0;
+        while (limiter.tryAcquire(priority) >= 0)
+            admitted++;
+
+        for (int i = admitted - 1; i >= 0; i--)
+            limiter.release(priority, i, rttNanos, false);
+    }
+}
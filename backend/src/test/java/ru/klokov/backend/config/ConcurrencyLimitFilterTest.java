@@ -0,0 +1,85 @@
+package ru.klokov.backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import ru.klokov.backend.config.AdaptiveConcurrencyLimiter.Priority;
+
+public class ConcurrencyLimitFilterTest {
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 0.5);
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+            limiter, new ObjectMapper().registerModule(new JavaTimeModule()), Duration.ofSeconds(2));
+
+    @Test
+    @DisplayName("Test bulk request over its share is rejected with 503 and Retry-After")
+    void givenSaturatedBulkShare_whenFilterExportRequest_thenServiceUnavailableIsReturned() throws Exception {
+        // given
+        limiter.tryAcquire(Priority.BULK);
+        limiter.tryAcquire(Priority.BULK);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/types/export");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // when
+        filter.doFilter(request, response, chain);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("\"statusCode\":503");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    @DisplayName("Test interactive request is admitted while bulk share is saturated")
+    void givenSaturatedBulkShare_whenFilterInteractiveRequest_thenRequestIsAdmittedAndReleased() throws Exception {
+        // given
+        limiter.tryAcquire(Priority.BULK);
+        limiter.tryAcquire(Priority.BULK);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/types/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // when
+        filter.doFilter(request, response, chain);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Test event stream request is not limited")
+    void givenExhaustedLimit_whenFilterEventStreamRequest_thenRequestIsPassedWithoutSlot() throws Exception {
+        // given
+        for (int i = 0; i < 4; i++)
+            limiter.tryAcquire(Priority.INTERACTIVE);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/types/events");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // when
+        filter.doFilter(request, response, chain);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(limiter.getInFlight()).isEqualTo(4);
+    }
+}
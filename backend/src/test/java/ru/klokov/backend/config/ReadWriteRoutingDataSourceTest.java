@@ -0,0 +1,148 @@
+package ru.klokov.backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+public class ReadWriteRoutingDataSourceTest {
+    private HikariDataSource primary;
+    private HikariDataSource replica1;
+    private HikariDataSource replica2;
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @AfterEach
+    void tearDown() {
+        ReadWriteRoutingDataSource.unpinFromPrimary();
+        primary.close();
+        replica1.close();
+        replica2.close();
+    }
+
+    @Test
+    @DisplayName("Test read-only transaction is routed to replica")
+    void givenReadOnlyTransaction_whenQuery_thenReplicaIsUsed() {
+        // given
+        setUp(1);
+
+        // when
+        String node = readOnlyTransaction.execute(status -> currentNode());
+
+        // then
+        assertThat(node).isEqualTo("replica1");
+    }
+
+    @Test
+    @DisplayName("Test read-write transaction and non-transactional access are routed to primary")
+    void givenReadWriteTransaction_whenQuery_thenPrimaryIsUsed() {
+        // given
+        setUp(1);
+
+        // when
+        String transactionalNode = readWriteTransaction.execute(status -> currentNode());
+        String nonTransactionalNode = currentNode();
+
+        // then
+        assertThat(transactionalNode).isEqualTo("primary");
+        assertThat(nonTransactionalNode).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Test read-only transaction of a client pinned to primary is routed to primary")
+    void givenPinnedClient_whenReadOnlyQuery_thenPrimaryIsUsed() {
+        // given
+        setUp(1);
+        ReadWriteRoutingDataSource.pinToPrimary();
+
+        // when
+        String node = readOnlyTransaction.execute(status -> currentNode());
+
+        // then
+        assertThat(node).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Test read-only transaction is routed to the least loaded replica")
+    void givenBusyReplica_whenReadOnlyQuery_thenOtherReplicaIsUsed() throws Exception {
+        // given
+        setUp(2);
+
+        try (Connection busy = replica1.getConnection()) {
+            // when
+            List<String> nodes = List.of(
+                    readOnlyTransaction.execute(status -> currentNode()),
+                    readOnlyTransaction.execute(status -> currentNode()));
+
+            // then
+            assertThat(nodes).containsOnly("replica2");
+        }
+    }
+
+    @Test
+    @DisplayName("Test read-only transaction run on primary is routed to primary and keeps routing afterwards")
+    void givenCallOnPrimary_whenReadOnlyQuery_thenPrimaryIsUsedOnlyWithin() {
+        // given
+        setUp(1);
+
+        // when
+        String pinnedNode = ReadWriteRoutingDataSource.callOnPrimary(
+                () -> readOnlyTransaction.execute(status -> currentNode()));
+        String node = readOnlyTransaction.execute(status -> currentNode());
+
+        // then
+        assertThat(pinnedNode).isEqualTo("primary");
+        assertThat(node).isEqualTo("replica1");
+    }
+
+    private void setUp(int replicaCount) {
+        primary = embeddedDatabase("primary");
+        replica1 = embeddedDatabase("replica1");
+        replica2 = embeddedDatabase("replica2");
+
+        routingDataSource = new ReadWriteRoutingDataSource(primary,
+                replicaCount == 1 ? List.of(replica1) : List.of(replica1, replica2));
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static HikariDataSource embeddedDatabase(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPoolName(name);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+
+        return dataSource;
+    }
+}
@@ -0,0 +1,69 @@
+package ru.klokov.backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+
+public class ReadYourWritesFilterTest {
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+
+    @Test
+    @DisplayName("Test mutation sets read-your-writes cookie")
+    void givenMutationRequest_whenFilter_thenReadYourWritesCookieIsSet() throws Exception {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/v1/types/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(request, response, (req, res) -> {
+        });
+
+        // then
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(Long.parseLong(cookie.getValue())).isGreaterThan(System.currentTimeMillis());
+    }
+
+    @Test
+    @DisplayName("Test read inside read-your-writes window is pinned to primary")
+    void givenCookieWithinWindow_whenFilterReadRequest_thenRequestIsPinnedToPrimary() throws Exception {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/types/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME,
+                String.valueOf(System.currentTimeMillis() + 5000)));
+
+        AtomicBoolean routedToReplica = new AtomicBoolean(true);
+        FilterChain chain = (req, res) -> routedToReplica.set(routesReadOnlyTransactionsToReplica());
+
+        // when
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // then
+        assertThat(routedToReplica).isFalse();
+        assertThat(routesReadOnlyTransactionsToReplica()).isTrue();
+    }
+
+    private static boolean routesReadOnlyTransactionsToReplica() {
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(
+                new SimpleDriverDataSource(), List.of(new SimpleDriverDataSource()));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            return !"primary".equals(dataSource.determineCurrentLookupKey());
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+}
@@ -6,7 +6,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
@@ -17,33 +19,64 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import ru.klokov.backend.dto.PagedResponse;
+import ru.klokov.backend.dto.emittertype.EmitterTypeImportResponse;
+import ru.klokov.backend.dto.emittertype.EmitterTypeImportRowResult;
+import ru.klokov.backend.dto.emittertype.EmitterTypeImportStatus;
 import ru.klokov.backend.dto.emittertype.EmitterTypeRequest;
 import ru.klokov.backend.dto.emittertype.EmitterTypeResponse;
+import ru.klokov.backend.exception.ExpectedServerException;
 import ru.klokov.backend.exception.FormValidationException;
 import ru.klokov.backend.exception.ParameterValidationException;
 import ru.klokov.backend.exception.ServerException;
+import ru.klokov.backend.mapper.EmitterTypeMapper;
 import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.model.EmitterTypeChanges;
+import ru.klokov.backend.service.EmitterTypeImportService;
 import ru.klokov.backend.service.EmitterTypeService;
+import ru.klokov.backend.service.implementation.EmitterTypeEventStream;
+import ru.klokov.backend.utils.BatchUtils;
+import ru.klokov.backend.utils.ChangesUtils;
+import ru.klokov.backend.utils.ExportUtils;
 import ru.klokov.backend.utils.PageUtils;
+import ru.klokov.backend.utils.SearchUtils;
 
 @WebMvcTest(EmitterTypeController.class)
+@Import({ ExportUtils.class, SearchUtils.class, BatchUtils.class, ChangesUtils.class })
 public class EmitterTypeControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -52,11 +85,17 @@ public class EmitterTypeControllerTest {
     private EmitterTypeService emitterTypeService;
 
     @MockitoBean
-    private ModelMapper mapper;
+    private EmitterTypeImportService emitterTypeImportService;
+
+    @MockitoBean
+    private EmitterTypeMapper mapper;
 
     @MockitoBean
     private PageUtils pageUtils;
 
+    @MockitoBean
+    private EmitterTypeEventStream emitterTypeEventStream;
+
     @Test
     @DisplayName("GET /api/v1/types/all returns list of emitter types")
     void givenEmitterTypesList_whenGetAllEmitterTypes_thenReturnsListOfResponses() throws Exception {
@@ -74,8 +113,8 @@ public class EmitterTypeControllerTest {
         EmitterTypeResponse response2 = new EmitterTypeResponse(typeId2, typeName2);
 
         given(emitterTypeService.getAllEmitterTypes()).willReturn(emitterTypes);
-        given(mapper.map(emitterType1, EmitterTypeResponse.class)).willReturn(response1);
-        given(mapper.map(emitterType2, EmitterTypeResponse.class)).willReturn(response2);
+        given(mapper.toEmitterTypeResponse(emitterType1)).willReturn(response1);
+        given(mapper.toEmitterTypeResponse(emitterType2)).willReturn(response2);
 
         // when - then
         mockMvc.perform(get("/api/v1/types/all")).andExpect(status().isOk())
@@ -87,8 +126,8 @@ public class EmitterTypeControllerTest {
                         .andExpect(jsonPath("$[1].name").value(typeName2));
 
         verify(emitterTypeService, times(1)).getAllEmitterTypes();
-        verify(mapper, times(1)).map(emitterType1, EmitterTypeResponse.class);
-        verify(mapper, times(1)).map(emitterType2, EmitterTypeResponse.class);
+        verify(mapper, times(1)).toEmitterTypeResponse(emitterType1);
+        verify(mapper, times(1)).toEmitterTypeResponse(emitterType2);
     }
 
     @Test
@@ -127,11 +166,12 @@ public class EmitterTypeControllerTest {
         given(pageUtils.getPageSize(sizeParam)).willReturn(pageSize);
         given(pageUtils.getPageSortField(fieldParam)).willReturn(sortField);
         given(pageUtils.getPageSortDirection(directionParam)).willReturn(sortDirectionBoolean);
+        given(pageUtils.isPageCountExact(null)).willReturn(true);
 
-        given(emitterTypeService.getEmitterTypesPage(pageNumber, pageSize, sortField, sortDirectionBoolean))
+        given(emitterTypeService.getEmitterTypesPage(pageNumber, pageSize, sortField, sortDirectionBoolean, true))
                         .willReturn(page);
-        given(mapper.map(emitterType1, EmitterTypeResponse.class)).willReturn(response1);
-        given(mapper.map(emitterType2, EmitterTypeResponse.class)).willReturn(response2);
+        given(mapper.toEmitterTypeResponse(emitterType1)).willReturn(response1);
+        given(mapper.toEmitterTypeResponse(emitterType2)).willReturn(response2);
 
         // when - then
         mockMvc.perform(get("/api/v1/types").param("page", pageParam).param("size", sizeParam)
@@ -150,9 +190,9 @@ public class EmitterTypeControllerTest {
         verify(pageUtils).getPageSize(sizeParam);
         verify(pageUtils).getPageSortField(fieldParam);
         verify(pageUtils).getPageSortDirection(directionParam);
-        verify(emitterTypeService).getEmitterTypesPage(pageNumber, pageSize, sortField, sortDirectionBoolean);
-        verify(mapper).map(emitterType1, EmitterTypeResponse.class);
-        verify(mapper).map(emitterType2, EmitterTypeResponse.class);
+        verify(emitterTypeService).getEmitterTypesPage(pageNumber, pageSize, sortField, sortDirectionBoolean, true);
+        verify(mapper).toEmitterTypeResponse(emitterType1);
+        verify(mapper).toEmitterTypeResponse(emitterType2);
     }
 
     @Test
@@ -183,11 +223,13 @@ public class EmitterTypeControllerTest {
         given(pageUtils.getPageSize(null)).willReturn(defaultPageSize);
         given(pageUtils.getPageSortField(null)).willReturn(defaultSortField);
         given(pageUtils.getPageSortDirection(null)).willReturn(defaultSortDirectionBoolean);
+        given(pageUtils.isPageCountExact(null)).willReturn(true);
 
         given(emitterTypeService.getEmitterTypesPage(defaultPageNumber, defaultPageSize,
                         defaultSortField,
-                        defaultSortDirectionBoolean)).willReturn(page);
-        given(mapper.map(emitterType, EmitterTypeResponse.class)).willReturn(response);
+                        defaultSortDirectionBoolean,
+                        true)).willReturn(page);
+        given(mapper.toEmitterTypeResponse(emitterType)).willReturn(response);
 
         // when - then
         mockMvc.perform(get("/api/v1/types")).andExpect(status().isOk())
@@ -206,8 +248,9 @@ public class EmitterTypeControllerTest {
                         defaultPageNumber,
                         defaultPageSize,
                         defaultSortField,
-                        defaultSortDirectionBoolean);
-        verify(mapper).map(emitterType, EmitterTypeResponse.class);
+                        defaultSortDirectionBoolean,
+                        true);
+        verify(mapper).toEmitterTypeResponse(emitterType);
     }
 
     @Test
@@ -235,6 +278,30 @@ public class EmitterTypeControllerTest {
         verifyNoInteractions(mapper);
     }
 
+    @Test
+    @DisplayName("GET /api/v1/types pageable with approximate count skips exact count")
+    void givenApproximateCount_whenGetAllEmitterTypesPageable_thenServiceIsAskedForApproximateTotal()
+                    throws Exception {
+        // given
+        EmitterType emitterType = EmitterType.builder().id(1L).name("Type 1").build();
+        Page<EmitterType> page = new PageImpl<>(List.of(emitterType), PageRequest.of(0, 5), 42);
+
+        given(pageUtils.getPageNumber(null)).willReturn(1);
+        given(pageUtils.getPageSize(null)).willReturn(5);
+        given(pageUtils.getPageSortField(null)).willReturn("id");
+        given(pageUtils.getPageSortDirection(null)).willReturn(true);
+        given(pageUtils.isPageCountExact("approximate")).willReturn(false);
+        given(emitterTypeService.getEmitterTypesPage(1, 5, "id", true, false)).willReturn(page);
+        given(mapper.toEmitterTypeResponse(emitterType)).willReturn(new EmitterTypeResponse(1L, "Type 1"));
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types").param("count", "approximate"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.totalPages").value(9));
+
+        verify(emitterTypeService).getEmitterTypesPage(1, 5, "id", true, false);
+    }
+
     @Test
     @DisplayName("GET /api/v1/types/{id} get emitter type by id functionality (success)")
     void givenId_whenGetEmitterTypeById_thenReturnSuccessResponse() throws Exception {
@@ -246,7 +313,7 @@ public class EmitterTypeControllerTest {
         EmitterTypeResponse emitterTypeResponse = new EmitterTypeResponse(typeId, typeName);
 
         given(emitterTypeService.getEmitterTypeById(anyLong())).willReturn(emitterType);
-        given(mapper.map(any(EmitterType.class), eq(EmitterTypeResponse.class)))
+        given(mapper.toEmitterTypeResponse(any(EmitterType.class)))
                         .willReturn(emitterTypeResponse);
 
         // when - then
@@ -256,7 +323,7 @@ public class EmitterTypeControllerTest {
                         .andExpect(jsonPath("$.name").value(typeName));
 
         verify(emitterTypeService).getEmitterTypeById(anyLong());
-        verify(mapper).map(any(EmitterType.class), eq(EmitterTypeResponse.class));
+        verify(mapper).toEmitterTypeResponse(any(EmitterType.class));
     }
 
     @Test
@@ -298,10 +365,10 @@ public class EmitterTypeControllerTest {
         EmitterType emitterType = EmitterType.builder().id(typeId).name(typeName).build();
         EmitterTypeResponse emitterTypeResponse = new EmitterTypeResponse(typeId, typeName);
 
-        given(mapper.map(any(EmitterTypeRequest.class), eq(EmitterType.class)))
+        given(mapper.toEmitterType(any(EmitterTypeRequest.class)))
                         .willReturn(emitterType);
         given(emitterTypeService.createEmitterType(any(EmitterType.class))).willReturn(emitterType);
-        given(mapper.map(any(EmitterType.class), eq(EmitterTypeResponse.class)))
+        given(mapper.toEmitterTypeResponse(any(EmitterType.class)))
                         .willReturn(emitterTypeResponse);
 
         // when - then
@@ -312,9 +379,9 @@ public class EmitterTypeControllerTest {
                         .andExpect(jsonPath("$.id").value(typeId))
                         .andExpect(jsonPath("$.name").value(typeName));
 
-        verify(mapper).map(any(EmitterTypeRequest.class), eq(EmitterType.class));
+        verify(mapper).toEmitterType(any(EmitterTypeRequest.class));
         verify(emitterTypeService).createEmitterType(any(EmitterType.class));
-        verify(mapper).map(any(EmitterType.class), eq(EmitterTypeResponse.class));
+        verify(mapper).toEmitterTypeResponse(any(EmitterType.class));
     }
 
     @Test
@@ -331,7 +398,7 @@ public class EmitterTypeControllerTest {
         String message = String.format("Тип излучателя с названием \"%s\" уже существует", duplicateName);
         EmitterType emitterType = EmitterType.builder().name(duplicateName).build();
 
-        given(mapper.map(any(EmitterTypeRequest.class), eq(EmitterType.class)))
+        given(mapper.toEmitterType(any(EmitterTypeRequest.class)))
                         .willReturn(emitterType);
         given(emitterTypeService.createEmitterType(emitterType)).willThrow(new ServerException(
                         HttpStatus.CONFLICT,
@@ -349,7 +416,7 @@ public class EmitterTypeControllerTest {
                         .andExpect(jsonPath("$.timestamp").exists());
 
         verify(emitterTypeService).createEmitterType(emitterType);
-        verify(mapper).map(any(EmitterTypeRequest.class), eq(EmitterType.class));
+        verify(mapper).toEmitterType(any(EmitterTypeRequest.class));
     }
 
     @Test
@@ -424,11 +491,11 @@ public class EmitterTypeControllerTest {
         EmitterType updatedEmitterType = EmitterType.builder().id(typeId).name(updatedName).build();
         EmitterTypeResponse emitterTypeResponse = new EmitterTypeResponse(typeId, updatedName);
 
-        given(mapper.map(any(EmitterTypeRequest.class), eq(EmitterType.class)))
+        given(mapper.toEmitterType(any(EmitterTypeRequest.class)))
                         .willReturn(emitterTypeToUpdate);
-        given(emitterTypeService.updateEmitterType(anyLong(), any(EmitterType.class)))
+        given(emitterTypeService.updateEmitterType(anyLong(), any(EmitterType.class), isNull()))
                         .willReturn(updatedEmitterType);
-        given(mapper.map(any(EmitterType.class), eq(EmitterTypeResponse.class)))
+        given(mapper.toEmitterTypeResponse(any(EmitterType.class)))
                         .willReturn(emitterTypeResponse);
 
         // when - then
@@ -439,9 +506,9 @@ public class EmitterTypeControllerTest {
                         .andExpect(jsonPath("$.id").value(typeId))
                         .andExpect(jsonPath("$.name").value(updatedName));
 
-        verify(mapper).map(any(EmitterTypeRequest.class), eq(EmitterType.class));
-        verify(emitterTypeService).updateEmitterType(eq(typeId), any(EmitterType.class));
-        verify(mapper).map(any(EmitterType.class), eq(EmitterTypeResponse.class));
+        verify(mapper).toEmitterType(any(EmitterTypeRequest.class));
+        verify(emitterTypeService).updateEmitterType(eq(typeId), any(EmitterType.class), isNull());
+        verify(mapper).toEmitterTypeResponse(any(EmitterType.class));
     }
 
     @Test
@@ -509,14 +576,14 @@ public class EmitterTypeControllerTest {
         Long typeId = 1L;
         String message = String.format("Тип излучателя с идентификатором %d успешно удален", typeId);
 
-        doNothing().when(emitterTypeService).deleteEmitterType(typeId);
+        doNothing().when(emitterTypeService).deleteEmitterType(typeId, null);
 
         // when - then
         mockMvc.perform(delete("/api/v1/types/{id}", typeId))
                         .andExpect(status().isOk())
                         .andExpect(content().string(message));
 
-        verify(emitterTypeService).deleteEmitterType(typeId);
+        verify(emitterTypeService).deleteEmitterType(typeId, null);
     }
 
     @Test
@@ -529,7 +596,7 @@ public class EmitterTypeControllerTest {
         doThrow(new ServerException(
                         HttpStatus.NOT_FOUND,
                         message,
-                        Instant.now())).when(emitterTypeService).deleteEmitterType(typeId);
+                        Instant.now())).when(emitterTypeService).deleteEmitterType(typeId, null);
 
         // when - then
         mockMvc.perform(delete("/api/v1/types/{id}", typeId))
@@ -538,6 +605,572 @@ public class EmitterTypeControllerTest {
                         .andExpect(jsonPath("$.message").value(message))
                         .andExpect(jsonPath("$.timestamp").exists());
 
-        verify(emitterTypeService).deleteEmitterType(typeId);
+        verify(emitterTypeService).deleteEmitterType(typeId, null);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/scroll returns cursor paged emitter type response")
+    void givenEmitterTypesWindow_whenGetEmitterTypesScroll_thenReturnsCursorPagedResponse() throws Exception {
+        // given
+        Long typeId = 1L;
+        String typeName = "Type 1";
+        int pageSize = 1;
+        String sortField = "id";
+
+        EmitterType emitterType = EmitterType.builder().id(typeId).name(typeName).build();
+        Window<EmitterType> window = Window.from(List.of(emitterType),
+                        index -> ScrollPosition.forward(Map.of("id", typeId)), true);
+
+        given(pageUtils.getPageSize(null)).willReturn(pageSize);
+        given(pageUtils.getPageSortField(null)).willReturn(sortField);
+        given(pageUtils.getPageSortDirection(null)).willReturn(true);
+        given(emitterTypeService.getEmitterTypesWindow(ScrollPosition.keyset(), pageSize, sortField, true))
+                        .willReturn(window);
+        given(mapper.toEmitterTypeResponse(emitterType))
+                        .willReturn(new EmitterTypeResponse(typeId, typeName));
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/scroll"))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(jsonPath("$.content.length()").value(1))
+                        .andExpect(jsonPath("$.content[0].id").value(typeId))
+                        .andExpect(jsonPath("$.content[0].name").value(typeName))
+                        .andExpect(jsonPath("$.hasNext").value(true))
+                        .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+
+        verify(emitterTypeService).getEmitterTypesWindow(ScrollPosition.keyset(), pageSize, sortField, true);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/scroll with invalid cursor throws ParameterValidationException")
+    void givenInvalidCursor_whenGetEmitterTypesScroll_thenReturnsBadRequestResponse() throws Exception {
+        // given
+        given(pageUtils.getPageSortField(null)).willReturn("id");
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/scroll").param("cursor", "not-a-cursor"))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(result -> assertTrue(
+                                        result.getResolvedException() instanceof ParameterValidationException))
+                        .andExpect(jsonPath("$.message").value("Некорректный параметр \"Курсор\""));
+
+        verifyNoInteractions(emitterTypeService);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/scroll with cursor missing the id key throws ParameterValidationException")
+    void givenCursorWithoutIdKey_whenGetEmitterTypesScroll_thenReturnsBadRequestResponse() throws Exception {
+        // given
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                        .encodeToString("{\"name\":\"SType 1\"}".getBytes(StandardCharsets.UTF_8));
+
+        given(pageUtils.getPageSortField("name")).willReturn("name");
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/scroll").param("cursor", cursor).param("field", "name"))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(result -> assertTrue(
+                                        result.getResolvedException() instanceof ParameterValidationException))
+                        .andExpect(jsonPath("$.message").value("Некорректный параметр \"Курсор\""));
+
+        verifyNoInteractions(emitterTypeService);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/scroll with cursor holding a foreign key throws ParameterValidationException")
+    void givenCursorWithExtraKey_whenGetEmitterTypesScroll_thenReturnsBadRequestResponse() throws Exception {
+        // given
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                        .encodeToString("{\"id\":\"L1\",\"type_name\":\"SType 1\"}".getBytes(StandardCharsets.UTF_8));
+
+        given(pageUtils.getPageSortField("id")).willReturn("id");
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/scroll").param("cursor", cursor).param("field", "id"))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(result -> assertTrue(
+                                        result.getResolvedException() instanceof ParameterValidationException))
+                        .andExpect(jsonPath("$.message").value("Некорректный параметр \"Курсор\""));
+
+        verifyNoInteractions(emitterTypeService);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/scroll with cursor holding a non-numeric id throws ParameterValidationException")
+    void givenCursorWithWrongIdType_whenGetEmitterTypesScroll_thenReturnsBadRequestResponse() throws Exception {
+        // given
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                        .encodeToString("{\"name\":\"SType 1\",\"id\":\"S1\"}".getBytes(StandardCharsets.UTF_8));
+
+        given(pageUtils.getPageSortField("name")).willReturn("name");
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/scroll").param("cursor", cursor).param("field", "name"))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(result -> assertTrue(
+                                        result.getResolvedException() instanceof ParameterValidationException))
+                        .andExpect(jsonPath("$.message").value("Некорректный параметр \"Курсор\""));
+
+        verifyNoInteractions(emitterTypeService);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/scroll with cursor holding a non-instant updatedAt throws ParameterValidationException")
+    void givenCursorWithWrongSortFieldType_whenGetEmitterTypesScroll_thenReturnsBadRequestResponse() throws Exception {
+        // given
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                        .encodeToString("{\"updatedAt\":\"L1\",\"id\":\"L1\"}".getBytes(StandardCharsets.UTF_8));
+
+        given(pageUtils.getPageSortField("updatedAt")).willReturn("updatedAt");
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/scroll").param("cursor", cursor).param("field", "updatedAt"))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(result -> assertTrue(
+                                        result.getResolvedException() instanceof ParameterValidationException))
+                        .andExpect(jsonPath("$.message").value("Некорректный параметр \"Курсор\""));
+
+        verifyNoInteractions(emitterTypeService);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/scroll decodes cursor keys into attribute types")
+    void givenValidCursor_whenGetEmitterTypesScroll_thenPassesTypedKeysetPosition() throws Exception {
+        // given
+        Instant updatedAt = Instant.parse("2024-01-01T00:00:00Z");
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                        ("{\"updatedAt\":\"T" + updatedAt + "\",\"id\":\"L7\"}").getBytes(StandardCharsets.UTF_8));
+        ScrollPosition position = ScrollPosition.forward(Map.of("updatedAt", updatedAt, "id", 7L));
+
+        given(pageUtils.getPageSize(null)).willReturn(1);
+        given(pageUtils.getPageSortField("updatedAt")).willReturn("updatedAt");
+        given(pageUtils.getPageSortDirection(null)).willReturn(true);
+        given(emitterTypeService.getEmitterTypesWindow(position, 1, "updatedAt", true))
+                        .willReturn(Window.from(List.of(), index -> position));
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/scroll").param("cursor", cursor).param("field", "updatedAt"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.hasNext").value(false));
+
+        verify(emitterTypeService).getEmitterTypesWindow(position, 1, "updatedAt", true);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/export streams emitter types as NDJSON")
+    void givenEmitterTypes_whenExportEmitterTypes_thenReturnsNdjsonStream() throws Exception {
+        // given
+        EmitterType emitterType1 = EmitterType.builder().id(1L).name("Type 1").build();
+        EmitterType emitterType2 = EmitterType.builder().id(2L).name("Type 2").build();
+
+        doAnswer(invocation -> {
+            Consumer<EmitterType> consumer = invocation.getArgument(0);
+            consumer.accept(emitterType1);
+            consumer.accept(emitterType2);
+            return null;
+        }).when(emitterTypeService).exportEmitterTypes(any());
+        given(mapper.toEmitterTypeResponse(emitterType1))
+                        .willReturn(new EmitterTypeResponse(1L, "Type 1"));
+        given(mapper.toEmitterTypeResponse(emitterType2))
+                        .willReturn(new EmitterTypeResponse(2L, "Type 2"));
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/export"))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                        .andExpect(content().string("{\"id\":1,\"name\":\"Type 1\"}\n{\"id\":2,\"name\":\"Type 2\"}\n"));
+
+        verify(emitterTypeService).exportEmitterTypes(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/export streams emitter types as CSV")
+    void givenEmitterTypes_whenExportEmitterTypesAsCsv_thenReturnsCsvStream() throws Exception {
+        // given
+        EmitterType emitterType = EmitterType.builder().id(1L).name("Type, \"quoted\"").build();
+
+        doAnswer(invocation -> {
+            Consumer<EmitterType> consumer = invocation.getArgument(0);
+            consumer.accept(emitterType);
+            return null;
+        }).when(emitterTypeService).exportEmitterTypes(any());
+        given(mapper.toEmitterTypeResponse(emitterType))
+                        .willReturn(new EmitterTypeResponse(1L, "Type, \"quoted\""));
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/export").param("format", "csv"))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                        .andExpect(content().string("id,name\n1,\"Type, \"\"quoted\"\"\"\n"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/export with unknown format throws ParameterValidationException")
+    void givenUnknownFormat_whenExportEmitterTypes_thenReturnsBadRequestResponse() throws Exception {
+        // when - then
+        mockMvc.perform(get("/api/v1/types/export").param("format", "xml"))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(result -> assertTrue(
+                                        result.getResolvedException() instanceof ParameterValidationException));
+
+        verifyNoInteractions(emitterTypeService);
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/types/bulk imports JSON array and returns per-row report")
+    void givenJsonArray_whenImportEmitterTypes_thenReturnsImportReport() throws Exception {
+        // given
+        String requestJson = """
+                        [
+                            { "name": "Type 1" },
+                            { "name": "Type 2" }
+                        ]
+                        """;
+
+        EmitterTypeImportResponse importResponse = EmitterTypeImportResponse.builder()
+                        .total(2)
+                        .created(1)
+                        .duplicates(1)
+                        .rows(List.of(
+                                        new EmitterTypeImportRowResult(1, "Type 1",
+                                                        EmitterTypeImportStatus.CREATED, null),
+                                        new EmitterTypeImportRowResult(2, "Type 2",
+                                                        EmitterTypeImportStatus.DUPLICATE, List.of())))
+                        .build();
+
+        given(emitterTypeImportService.importEmitterTypes(any(InputStream.class))).willReturn(importResponse);
+
+        // when - then
+        mockMvc.perform(post("/api/v1/types/bulk").contentType(MediaType.APPLICATION_JSON).content(requestJson))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.total").value(2))
+                        .andExpect(jsonPath("$.created").value(1))
+                        .andExpect(jsonPath("$.duplicates").value(1))
+                        .andExpect(jsonPath("$.rows[1].status").value("DUPLICATE"));
+
+        verify(emitterTypeImportService).importEmitterTypes(any(InputStream.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/types/bulk imports CSV body")
+    void givenCsvBody_whenImportEmitterTypes_thenCsvImportIsUsed() throws Exception {
+        // given
+        given(emitterTypeImportService.importEmitterTypes(any(Reader.class)))
+                        .willReturn(EmitterTypeImportResponse.builder().total(1).created(1).rows(List.of()).build());
+
+        // when - then
+        mockMvc.perform(post("/api/v1/types/bulk").contentType("text/csv").content("name\nType 1\n"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.created").value(1));
+
+        verify(emitterTypeImportService).importEmitterTypes(any(Reader.class));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/{id} with expected not found exception returns not found response")
+    void givenExpectedNotFound_whenGetEmitterTypeById_thenReturnNotFoundResponse() throws Exception {
+        // given
+        Long typeId = Long.MAX_VALUE;
+        String message = String.format("Тип излучателя с идентификатором %d не найден", typeId);
+
+        given(emitterTypeService.getEmitterTypeById(anyLong()))
+                        .willThrow(new ExpectedServerException(HttpStatus.NOT_FOUND, message, Instant.now()));
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/{id}", typeId)).andExpect(status().isNotFound())
+                        .andExpect(result -> assertTrue(
+                                        result.getResolvedException() instanceof ExpectedServerException))
+                        .andExpect(jsonPath("$.statusCode").value(HttpStatus.NOT_FOUND.value()))
+                        .andExpect(jsonPath("$.message").value(message))
+                        .andExpect(jsonPath("$.timestamp").exists());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/{id} with matching If-None-Match returns not modified")
+    void givenMatchingETag_whenGetEmitterTypeById_thenReturnNotModifiedResponse() throws Exception {
+        // given
+        Long typeId = 1L;
+        EmitterType emitterType = EmitterType.builder()
+                        .id(typeId)
+                        .name("Type 1")
+                        .version(3L)
+                        .updatedAt(Instant.parse("2025-01-01T00:00:00Z"))
+                        .build();
+
+        given(emitterTypeService.getEmitterTypeById(typeId)).willReturn(emitterType);
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/{id}", typeId).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                        .andExpect(status().isNotModified())
+                        .andExpect(header().string(HttpHeaders.ETAG, "W/\"3\""))
+                        .andExpect(content().string(""));
+
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/{id} with changed version returns emitter type with ETag")
+    void givenStaleETag_whenGetEmitterTypeById_thenReturnSuccessResponseWithETag() throws Exception {
+        // given
+        Long typeId = 1L;
+        EmitterType emitterType = EmitterType.builder()
+                        .id(typeId)
+                        .name("Type 1")
+                        .version(4L)
+                        .updatedAt(Instant.parse("2025-01-01T00:00:00Z"))
+                        .build();
+
+        given(emitterTypeService.getEmitterTypeById(typeId)).willReturn(emitterType);
+        given(mapper.toEmitterTypeResponse(emitterType)).willReturn(new EmitterTypeResponse(typeId, "Type 1"));
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/{id}", typeId).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(HttpHeaders.ETAG, "W/\"4\""))
+                        .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                        .andExpect(jsonPath("$.name").value("Type 1"));
+    }
+
+    @Test
+    @DisplayName("PUT /api/v1/types/{id} with stale If-Match returns precondition failed")
+    void givenStaleIfMatch_whenUpdateEmitterType_thenReturnPreconditionFailedResponse() throws Exception {
+        // given
+        Long typeId = 1L;
+        String message = String.format("Тип излучателя с идентификатором %d был изменен другим пользователем", typeId);
+
+        given(mapper.toEmitterType(any(EmitterTypeRequest.class)))
+                        .willReturn(EmitterType.builder().name("Updated type").build());
+        given(emitterTypeService.updateEmitterType(eq(typeId), any(EmitterType.class), eq(2L)))
+                        .willThrow(new ExpectedServerException(HttpStatus.PRECONDITION_FAILED, message));
+
+        // when - then
+        mockMvc.perform(put("/api/v1/types/{id}", typeId)
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Updated type\"}"))
+                        .andExpect(status().isPreconditionFailed())
+                        .andExpect(jsonPath("$.message").value(message));
+
+        verify(emitterTypeService).updateEmitterType(eq(typeId), any(EmitterType.class), eq(2L));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/v1/types/{id} with malformed If-Match returns bad request")
+    void givenMalformedIfMatch_whenDeleteEmitterType_thenReturnBadRequestResponse() throws Exception {
+        // when - then
+        mockMvc.perform(delete("/api/v1/types/{id}", 1L).header(HttpHeaders.IF_MATCH, "version-2"))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("$.message").value("Некорректный заголовок \"If-Match\""));
+
+        verifyNoInteractions(emitterTypeService);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/search returns matching emitter types")
+    void givenSearchQuery_whenSearchEmitterTypes_thenReturnsMatchingResponses() throws Exception {
+        // given
+        EmitterType emitterType = EmitterType.builder().id(1L).name("Radar").build();
+
+        given(emitterTypeService.searchEmitterTypes("rad", 10)).willReturn(List.of(emitterType));
+        given(mapper.toEmitterTypeResponse(emitterType)).willReturn(new EmitterTypeResponse(1L, "Radar"));
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/search").param("q", " rad "))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.length()").value(1))
+                        .andExpect(jsonPath("$[0].name").value("Radar"));
+
+        verify(emitterTypeService).searchEmitterTypes("rad", 10);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/search with limit above maximum returns bad request")
+    void givenTooLargeLimit_whenSearchEmitterTypes_thenReturnsBadRequest() throws Exception {
+        // when - then
+        mockMvc.perform(get("/api/v1/types/search").param("q", "rad").param("limit", "1000"))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(result -> assertTrue(
+                                        result.getResolvedException() instanceof ParameterValidationException));
+
+        verifyNoInteractions(emitterTypeService);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/{id} with Accept application/cbor returns CBOR encoded emitter type")
+    void givenCborAccept_whenGetEmitterTypeById_thenReturnsCborResponse() throws Exception {
+        // given
+        EmitterType emitterType = EmitterType.builder().id(1L).name("Type 1").build();
+
+        given(emitterTypeService.getEmitterTypeById(1L)).willReturn(emitterType);
+        given(mapper.toEmitterTypeResponse(emitterType)).willReturn(new EmitterTypeResponse(1L, "Type 1"));
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/{id}", 1L).accept("application/cbor"))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentType("application/cbor"))
+                        .andExpect(result -> assertEquals("Type 1", new CBORMapper()
+                                        .readValue(result.getResponse().getContentAsByteArray(),
+                                                        EmitterTypeResponse.class)
+                                        .getName()));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types with Accept application/x-jackson-smile returns Smile encoded page")
+    void givenSmileAccept_whenGetAllEmitterTypesPageable_thenReturnsSmileResponse() throws Exception {
+        // given
+        EmitterType emitterType = EmitterType.builder().id(1L).name("Type 1").build();
+        Page<EmitterType> page = new PageImpl<>(List.of(emitterType), PageRequest.of(0, 5), 1);
+
+        given(pageUtils.getPageNumber(null)).willReturn(1);
+        given(pageUtils.getPageSize(null)).willReturn(5);
+        given(pageUtils.getPageSortField(null)).willReturn("id");
+        given(pageUtils.getPageSortDirection(null)).willReturn(true);
+        given(pageUtils.isPageCountExact(null)).willReturn(true);
+        given(emitterTypeService.getEmitterTypesPage(1, 5, "id", true, true)).willReturn(page);
+        given(mapper.toEmitterTypeResponse(emitterType)).willReturn(new EmitterTypeResponse(1L, "Type 1"));
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types").accept("application/x-jackson-smile"))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentType("application/x-jackson-smile"))
+                        .andExpect(result -> assertEquals(1, new SmileMapper()
+                                        .readValue(result.getResponse().getContentAsByteArray(),
+                                                        new TypeReference<PagedResponse<EmitterTypeResponse>>() {
+                                                        })
+                                        .getContent()
+                                        .size()));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/batch returns found emitter types and missing ids")
+    void givenSomeMissingIds_whenGetEmitterTypesByIds_thenReturnsFoundAndMissing() throws Exception {
+        // given
+        EmitterType emitterType1 = EmitterType.builder().id(1L).name("Type 1").build();
+        EmitterType emitterType3 = EmitterType.builder().id(3L).name("Type 3").build();
+
+        given(emitterTypeService.getEmitterTypesByIds(List.of(3L, 2L, 1L)))
+                        .willReturn(List.of(emitterType3, emitterType1));
+        given(mapper.toEmitterTypeResponse(emitterType1)).willReturn(new EmitterTypeResponse(1L, "Type 1"));
+        given(mapper.toEmitterTypeResponse(emitterType3)).willReturn(new EmitterTypeResponse(3L, "Type 3"));
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/batch").param("ids", "3, 2,1,3"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.content.length()").value(2))
+                        .andExpect(jsonPath("$.content[0].id").value(3))
+                        .andExpect(jsonPath("$.content[1].id").value(1))
+                        .andExpect(jsonPath("$.missing.length()").value(1))
+                        .andExpect(jsonPath("$.missing[0]").value(2));
+
+        verify(emitterTypeService).getEmitterTypesByIds(List.of(3L, 2L, 1L));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/batch with invalid id returns bad request")
+    void givenInvalidId_whenGetEmitterTypesByIds_thenReturnsBadRequest() throws Exception {
+        // when - then
+        mockMvc.perform(get("/api/v1/types/batch").param("ids", "1,abc"))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(result -> assertTrue(
+                                        result.getResolvedException() instanceof ParameterValidationException));
+
+        verifyNoInteractions(emitterTypeService);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/batch with more ids than allowed returns bad request")
+    void givenTooManyIds_whenGetEmitterTypesByIds_thenReturnsBadRequest() throws Exception {
+        // given
+        String ids = LongStream.rangeClosed(1, 101).mapToObj(Long::toString).collect(Collectors.joining(","));
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/batch").param("ids", ids))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("$.message")
+                                        .value("Некорректный параметр \"Идентификаторы\" (допустимо от 1 до 100)"));
+
+        verifyNoInteractions(emitterTypeService);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/events resumes the change feed after Last-Event-ID")
+    void givenLastEventId_whenStreamEmitterTypeEvents_thenSubscriptionResumesAfterIt() throws Exception {
+        // given
+        given(emitterTypeEventStream.subscribe(42L)).willReturn(new SseEmitter());
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/events")
+                        .header("Last-Event-ID", "42")
+                        .param("since", "7")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                        .andExpect(request().asyncStarted());
+
+        verify(emitterTypeEventStream).subscribe(42L);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/events with invalid since returns bad request")
+    void givenInvalidSince_whenStreamEmitterTypeEvents_thenReturnsBadRequest() throws Exception {
+        // when - then
+        mockMvc.perform(get("/api/v1/types/events").param("since", "-1"))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("$.message").value("Некорректный параметр \"Последнее событие\""));
+
+        verifyNoInteractions(emitterTypeEventStream);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/changes returns changed emitter types, tombstones and the next revision")
+    void givenChanges_whenGetEmitterTypeChanges_thenReturnsChangesAndNextRevision() throws Exception {
+        // given
+        EmitterType emitterType = EmitterType.builder().id(1L).name("Type 1").revision(11L).build();
+
+        given(emitterTypeService.getEmitterTypeChanges(10L, 2)).willReturn(EmitterTypeChanges.builder()
+                        .revision(12L)
+                        .hasMore(true)
+                        .changed(List.of(emitterType))
+                        .deleted(List.of(5L))
+                        .build());
+        given(mapper.toEmitterTypeResponse(emitterType)).willReturn(new EmitterTypeResponse(1L, "Type 1"));
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/changes").param("since", "10").param("limit", "2"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.revision").value(12))
+                        .andExpect(jsonPath("$.resyncRequired").value(false))
+                        .andExpect(jsonPath("$.hasMore").value(true))
+                        .andExpect(jsonPath("$.changed[0].id").value(1))
+                        .andExpect(jsonPath("$.deleted[0]").value(5));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/changes tells the client to resync after compaction")
+    void givenCompactedTombstones_whenGetEmitterTypeChanges_thenResyncIsRequired() throws Exception {
+        // given
+        given(emitterTypeService.getEmitterTypeChanges(3L, 500)).willReturn(EmitterTypeChanges.builder()
+                        .revision(20L)
+                        .resyncRequired(true)
+                        .changed(List.of())
+                        .deleted(List.of())
+                        .build());
+
+        // when - then
+        mockMvc.perform(get("/api/v1/types/changes").param("since", "3"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.revision").value(20))
+                        .andExpect(jsonPath("$.resyncRequired").value(true))
+                        .andExpect(jsonPath("$.changed.length()").value(0));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/types/changes without since returns bad request")
+    void givenMissingSince_whenGetEmitterTypeChanges_thenReturnsBadRequest() throws Exception {
+        // when - then
+        mockMvc.perform(get("/api/v1/types/changes"))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("$.message").value("Некорректный параметр \"Ревизия\""));
+
+        verifyNoInteractions(emitterTypeService);
     }
 }
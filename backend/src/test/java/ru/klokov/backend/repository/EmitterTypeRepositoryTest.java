@@ -3,16 +3,28 @@ package ru.klokov.backend.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.utils.SortField;
 
 @DataJpaTest
 class EmitterTypeRepositoryTest {
@@ -20,6 +32,9 @@ class EmitterTypeRepositoryTest {
     @Autowired
     private EmitterTypeRepository emitterTypeRepository;
 
+    @Autowired
+    private TestEntityManager testEntityManager;
+
     @Test
     @DisplayName("Test get all emitter types functionality")
     void givenThreeStoredEmitterTypes_whenFindAll_thenListOfThreeEmitterTypesReturned() {
@@ -226,4 +241,225 @@ class EmitterTypeRepositoryTest {
                 .isInstanceOf(InvalidDataAccessApiUsageException.class)
                 .hasMessageContaining("must not be null");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test scroll emitter types by keyset functionality")
+    void givenStoredEmitterTypes_whenFindAllByKeyset_thenWindowsFollowEachOther() {
+        // given
+        emitterTypeRepository.saveAll(List.of(
+                EmitterType.builder().name("Type C").build(),
+                EmitterType.builder().name("Type A").build(),
+                EmitterType.builder().name("Type B").build()));
+
+        Sort sort = Sort.by(Sort.Direction.ASC, "name", "id");
+
+        // when
+        Window<EmitterType> firstWindow = emitterTypeRepository.findAllBy(ScrollPosition.keyset(), sort,
+                Limit.of(2));
+        Window<EmitterType> secondWindow = emitterTypeRepository.findAllBy(
+                firstWindow.positionAt(firstWindow.size() - 1), sort, Limit.of(2));
+
+        // then
+        assertThat(firstWindow.hasNext()).isTrue();
+        assertThat(firstWindow.getContent())
+                .extracting(EmitterType::getName)
+                .containsExactly("Type A", "Type B");
+        assertThat(secondWindow.hasNext()).isFalse();
+        assertThat(secondWindow.getContent())
+                .extracting(EmitterType::getName)
+                .containsExactly("Type C");
+    }
+
+    @Test
+    @DisplayName("Test stream all emitter types functionality")
+    void givenStoredEmitterTypes_whenStreamAllBy_thenAllEmitterTypesAreStreamedInIdOrder() {
+        // given
+        List<EmitterType> saved = emitterTypeRepository.saveAll(List.of(
+                EmitterType.builder().name("Type 1").build(),
+                EmitterType.builder().name("Type 2").build()));
+
+        // when
+        List<Long> streamedIds;
+        try (Stream<EmitterType> emitterTypes = emitterTypeRepository.streamAllBy()) {
+            streamedIds = emitterTypes.map(EmitterType::getId).toList();
+        }
+
+        // then
+        assertThat(streamedIds).containsExactly(saved.get(0).getId(), saved.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Test update emitter type increments version and updated at")
+    void givenSavedEmitterType_whenUpdate_thenVersionIsIncremented() {
+        // given
+        EmitterType savedEmitterType = emitterTypeRepository.saveAndFlush(EmitterType.builder().name("Type 1").build());
+        Long initialVersion = savedEmitterType.getVersion();
+
+        // when
+        savedEmitterType.setName("Updated type");
+        EmitterType updatedEmitterType = emitterTypeRepository.saveAndFlush(savedEmitterType);
+
+        // then
+        assertThat(initialVersion).isNotNull();
+        assertThat(updatedEmitterType.getVersion()).isEqualTo(initialVersion + 1);
+        assertThat(updatedEmitterType.getUpdatedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Test search emitter types by name ranks exact and prefix matches first")
+    void givenStoredEmitterTypes_whenSearchByName_thenRelevanceOrderedMatchesReturned() {
+        // given
+        emitterTypeRepository.saveAll(List.of(
+                EmitterType.builder().name("Weather radar").build(),
+                EmitterType.builder().name("Radar").build(),
+                EmitterType.builder().name("Radar altimeter").build(),
+                EmitterType.builder().name("Jammer").build()));
+
+        // when
+        List<EmitterType> found = emitterTypeRepository.searchByName("radar", "%radar%", "radar%", Limit.of(10));
+
+        // then
+        assertThat(found)
+                .extracting(EmitterType::getName)
+                .containsExactly("Radar", "Radar altimeter", "Weather radar");
+    }
+
+    @Test
+    @DisplayName("Test search emitter types by name treats wildcard characters literally")
+    void givenStoredEmitterTypes_whenSearchByNameWithEscapedWildcard_thenOnlyLiteralMatchReturned() {
+        // given
+        emitterTypeRepository.saveAll(List.of(
+                EmitterType.builder().name("Type 100%").build(),
+                EmitterType.builder().name("Type 1000").build()));
+
+        // when
+        List<EmitterType> found = emitterTypeRepository.searchByName("100%", "%100!%%", "100!%%", Limit.of(10));
+
+        // then
+        assertThat(found).extracting(EmitterType::getName).containsExactly("Type 100%");
+    }
+
+    @Test
+    @DisplayName("Test find page sorted by name ignores case")
+    void givenMixedCaseNames_whenFindAllSortedByName_thenCaseIsIgnored() {
+        // given
+        emitterTypeRepository.saveAll(List.of(
+                EmitterType.builder().name("beacon").build(),
+                EmitterType.builder().name("Altimeter").build(),
+                EmitterType.builder().name("Carrier").build()));
+
+        // when
+        List<EmitterType> found = emitterTypeRepository
+                .findAll(PageRequest.of(0, 3, SortField.NAME.getSort(true)))
+                .getContent();
+
+        // then
+        assertThat(found).extracting(EmitterType::getName).containsExactly("Altimeter", "beacon", "Carrier");
+    }
+
+    @Test
+    @DisplayName("Test find changes returns rows revised in the range ordered by revision")
+    void givenRevisedEmitterTypes_whenFindChanges_thenRowsInRangeAreOrderedByRevision() {
+        // given
+        List<EmitterType> saved = emitterTypeRepository.saveAllAndFlush(List.of(
+                EmitterType.builder().name("Type 1").build(),
+                EmitterType.builder().name("Type 2").build(),
+                EmitterType.builder().name("Type 3").build()));
+        emitterTypeRepository.updateRevisions(
+                List.of(saved.get(2).getId(), saved.get(0).getId(), saved.get(1).getId()), 101L);
+        testEntityManager.clear();
+
+        // when
+        List<EmitterType> found = emitterTypeRepository.findChanges(101L, 103L, Limit.of(10));
+
+        // then
+        assertThat(found).extracting(EmitterType::getName).containsExactly("Type 1", "Type 2");
+        assertThat(found).extracting(EmitterType::getRevision).containsExactly(102L, 103L);
+    }
+
+    @Test
+    @DisplayName("Test scroll emitter types by name ignores case across windows")
+    void givenMixedCaseNames_whenScrollByLowerName_thenCaseIsIgnored() {
+        // given
+        List<EmitterType> saved = emitterTypeRepository.saveAll(List.of(
+                EmitterType.builder().name("beacon").build(),
+                EmitterType.builder().name("Altimeter").build(),
+                EmitterType.builder().name("Carrier").build(),
+                EmitterType.builder().name("BEACON").build()));
+
+        // when
+        Window<EmitterType> firstWindow = emitterTypeRepository.scrollByLowerName(ScrollPosition.keyset(), true,
+                Limit.of(2));
+        Window<EmitterType> secondWindow = emitterTypeRepository.scrollByLowerName(
+                (KeysetScrollPosition) firstWindow.positionAt(firstWindow.size() - 1), true, Limit.of(2));
+
+        // then
+        assertThat(firstWindow.getContent()).extracting(EmitterType::getName).containsExactly("Altimeter", "beacon");
+        assertThat(firstWindow.hasNext()).isTrue();
+        assertThat(firstWindow.positionAt(1)).isEqualTo(
+                ScrollPosition.forward(Map.of("name", "beacon", "id", saved.get(0).getId())));
+        assertThat(secondWindow.getContent()).extracting(EmitterType::getName).containsExactly("BEACON", "Carrier");
+        assertThat(secondWindow.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Test scroll emitter types by name descending ignores case across windows")
+    void givenMixedCaseNames_whenScrollByLowerNameDescending_thenCaseIsIgnored() {
+        // given
+        emitterTypeRepository.saveAll(List.of(
+                EmitterType.builder().name("beacon").build(),
+                EmitterType.builder().name("Altimeter").build(),
+                EmitterType.builder().name("Carrier").build()));
+
+        // when
+        Window<EmitterType> firstWindow = emitterTypeRepository.scrollByLowerName(ScrollPosition.keyset(), false,
+                Limit.of(2));
+        Window<EmitterType> secondWindow = emitterTypeRepository.scrollByLowerName(
+                (KeysetScrollPosition) firstWindow.positionAt(firstWindow.size() - 1), false, Limit.of(2));
+
+        // then
+        assertThat(firstWindow.getContent()).extracting(EmitterType::getName).containsExactly("Carrier", "beacon");
+        assertThat(secondWindow.getContent()).extracting(EmitterType::getName).containsExactly("Altimeter");
+    }
+
+    @Test
+    @DisplayName("Test update name returns the version and timestamp the database stored")
+    void givenSavedEmitterType_whenUpdateName_thenStoredVersionAndTimestampAreReturned() {
+        // given
+        EmitterType saved = emitterTypeRepository.saveAndFlush(EmitterType.builder().name("Type 1").build());
+
+        // when
+        Optional<EmitterType> updated = emitterTypeRepository.updateName(
+                saved.getId(), saved.getVersion(), "Updated type", Instant.now(), 42L);
+
+        // then
+        testEntityManager.clear();
+        EmitterType stored = emitterTypeRepository.findById(saved.getId()).orElseThrow();
+
+        assertThat(updated).get().satisfies(emitterType -> {
+            assertThat(emitterType.getName()).isEqualTo("Updated type");
+            assertThat(emitterType.getVersion()).isEqualTo(saved.getVersion() + 1).isEqualTo(stored.getVersion());
+            assertThat(emitterType.getUpdatedAt()).isEqualTo(stored.getUpdatedAt());
+            assertThat(emitterType.getRevision()).isEqualTo(42L).isEqualTo(stored.getRevision());
+        });
+    }
+
+    @Test
+    @DisplayName("Test update name with stale version leaves the row unchanged")
+    void givenStaleVersion_whenUpdateName_thenEmptyIsReturned() {
+        // given
+        EmitterType saved = emitterTypeRepository.saveAndFlush(EmitterType.builder().name("Type 1").build());
+
+        // when
+        Optional<EmitterType> updated = emitterTypeRepository.updateName(
+                saved.getId(), saved.getVersion() + 1, "Updated type", Instant.now(), 42L);
+
+        // then
+        testEntityManager.clear();
+
+        assertThat(updated).isEmpty();
+        assertThat(emitterTypeRepository.findById(saved.getId())).get()
+                .extracting(EmitterType::getName)
+                .isEqualTo("Type 1");
+    }
+}
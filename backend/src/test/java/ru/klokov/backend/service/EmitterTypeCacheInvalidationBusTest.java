@@ -0,0 +1,141 @@
+package ru.klokov.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ru.klokov.backend.config.CacheConfig;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.service.implementation.EmitterTypeCacheInvalidationBus;
+import ru.klokov.backend.service.implementation.EmitterTypeCacheLoader;
+
+@ExtendWith(MockitoExtension.class)
+public class EmitterTypeCacheInvalidationBusTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DataSourceProperties dataSourceProperties;
+
+    @Mock
+    private EmitterTypeCacheLoader emitterTypeCacheLoader;
+
+    private Cache emitterTypesCache;
+    private Cache emitterTypeListsCache;
+    private EmitterTypeCacheInvalidationBus emitterTypeCacheInvalidationBus;
+
+    @BeforeEach
+    void setUp() {
+        CacheManager cacheManager = new ConcurrentMapCacheManager(
+                CacheConfig.EMITTER_TYPES_CACHE, CacheConfig.EMITTER_TYPE_LISTS_CACHE);
+        emitterTypesCache = cacheManager.getCache(CacheConfig.EMITTER_TYPES_CACHE);
+        emitterTypeListsCache = cacheManager.getCache(CacheConfig.EMITTER_TYPE_LISTS_CACHE);
+
+        emitterTypeCacheInvalidationBus = new EmitterTypeCacheInvalidationBus(
+                jdbcTemplate, dataSourceProperties, cacheManager, emitterTypeCacheLoader,
+                Duration.ofSeconds(10), Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(emitterTypeCacheInvalidationBus, "lastRevision", 10L);
+
+        emitterTypesCache.put(1L, EmitterType.builder().id(1L).name("Type 1").build());
+        emitterTypesCache.put(2L, EmitterType.builder().id(2L).name("Type 2").build());
+        emitterTypeListsCache.put("all", List.of());
+    }
+
+    @Test
+    @DisplayName("Test publish sends the revision range and id on the invalidation channel")
+    void givenUpdatedEmitterType_whenPublish_thenNotificationIsSent() {
+        // when
+        emitterTypeCacheInvalidationBus.publish(11L, 11L, 1L);
+
+        // then
+        verify(jdbcTemplate).queryForList("SELECT pg_notify(?, ?)", "emitter_type_cache", "11:11:1");
+    }
+
+    @Test
+    @DisplayName("Test next revision evicts only the notified emitter type and the lists")
+    void givenNextRevision_whenOnNotification_thenNotifiedKeyAndListsAreEvicted() {
+        // when
+        emitterTypeCacheInvalidationBus.onNotification("11:11:1");
+
+        // then
+        assertThat(emitterTypesCache.get(1L)).isNull();
+        assertThat(emitterTypesCache.get(2L)).isNotNull();
+        assertThat(emitterTypeListsCache.get("all")).isNull();
+    }
+
+    @Test
+    @DisplayName("Test notified revision is required of the next cache fills")
+    void givenNextRevision_whenOnNotification_thenRevisionIsRequiredOfCacheFills() {
+        // when
+        emitterTypeCacheInvalidationBus.onNotification("11:12:1");
+
+        // then
+        verify(emitterTypeCacheLoader).requireRevision(12L);
+    }
+
+    @Test
+    @DisplayName("Test creation evicts only the lists")
+    void givenCreatedRevisions_whenOnNotification_thenOnlyListsAreEvicted() {
+        // when
+        emitterTypeCacheInvalidationBus.onNotification("11:13:");
+
+        // then
+        assertThat(emitterTypesCache.get(1L)).isNotNull();
+        assertThat(emitterTypesCache.get(2L)).isNotNull();
+        assertThat(emitterTypeListsCache.get("all")).isNull();
+    }
+
+    @Test
+    @DisplayName("Test missed revision flushes both caches")
+    void givenGapInRevisions_whenOnNotification_thenCachesAreFlushed() {
+        // when
+        emitterTypeCacheInvalidationBus.onNotification("13:13:1");
+
+        // then
+        assertThat(emitterTypesCache.get(2L)).isNull();
+        assertThat(emitterTypeListsCache.get("all")).isNull();
+    }
+
+    @Test
+    @DisplayName("Test consecutive notifications after a gap do not flush again")
+    void givenGapFollowedByNextRevision_whenOnNotification_thenOnlyNotifiedKeyIsEvicted() {
+        // given
+        emitterTypeCacheInvalidationBus.onNotification("13:13:1");
+        emitterTypesCache.put(2L, EmitterType.builder().id(2L).name("Type 2").build());
+        emitterTypesCache.put(3L, EmitterType.builder().id(3L).name("Type 3").build());
+
+        // when
+        emitterTypeCacheInvalidationBus.onNotification("14:14:3");
+
+        // then
+        assertThat(emitterTypesCache.get(2L)).isNotNull();
+        assertThat(emitterTypesCache.get(3L)).isNull();
+    }
+
+    @Test
+    @DisplayName("Test unreadable notification flushes both caches")
+    void givenUnreadablePayload_whenOnNotification_thenCachesAreFlushed() {
+        // when
+        emitterTypeCacheInvalidationBus.onNotification("garbage");
+
+        // then
+        assertThat(emitterTypesCache.get(2L)).isNull();
+        assertThat(emitterTypeListsCache.get("all")).isNull();
+    }
+}
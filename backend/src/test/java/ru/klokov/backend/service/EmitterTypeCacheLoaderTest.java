@@ -0,0 +1,126 @@
+package ru.klokov.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ru.klokov.backend.config.ReadWriteRoutingDataSource;
+import ru.klokov.backend.repository.EmitterTypeEventRepository;
+import ru.klokov.backend.service.implementation.EmitterTypeCacheLoader;
+
+@ExtendWith(MockitoExtension.class)
+public class EmitterTypeCacheLoaderTest {
+
+    @Mock
+    private EmitterTypeEventRepository emitterTypeEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Boolean> pinned = new ArrayList<>();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("Test load without routing does not read the replica revision")
+    void givenRoutingDisabled_whenLoad_thenRevisionIsNotRead() {
+        // given
+        EmitterTypeCacheLoader emitterTypeCacheLoader = loader(false);
+        emitterTypeCacheLoader.requireRevision(6L);
+
+        // when
+        String actual = emitterTypeCacheLoader.load(this::recordPinned);
+
+        // then
+        assertThat(actual).isEqualTo("loaded");
+        assertThat(pinned).containsExactly(false);
+        verifyNoInteractions(emitterTypeEventRepository);
+    }
+
+    @Test
+    @DisplayName("Test load from a replica that has applied the required revision is kept")
+    void givenRecentReplica_whenLoad_thenReplicaResultIsReturned() {
+        // given
+        EmitterTypeCacheLoader emitterTypeCacheLoader = loader(true);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        emitterTypeCacheLoader.bindTo(meterRegistry);
+        emitterTypeCacheLoader.requireRevision(6L);
+
+        given(emitterTypeEventRepository.findLastSequenceNumber()).willReturn(6L);
+
+        // when
+        emitterTypeCacheLoader.load(this::recordPinned);
+
+        // then
+        assertThat(pinned).containsExactly(false);
+        assertThat(meterRegistry.get("emitter.type.cache.primary.loads").functionCounter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test load from a lagging replica is repeated on primary")
+    void givenLaggingReplica_whenLoad_thenLoadIsRepeatedOnPrimary() {
+        // given
+        EmitterTypeCacheLoader emitterTypeCacheLoader = loader(true);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        emitterTypeCacheLoader.bindTo(meterRegistry);
+        emitterTypeCacheLoader.requireRevision(6L);
+        emitterTypeCacheLoader.requireRevision(4L);
+
+        given(emitterTypeEventRepository.findLastSequenceNumber()).willReturn(5L);
+
+        // when
+        emitterTypeCacheLoader.load(this::recordPinned);
+
+        // then
+        assertThat(pinned).containsExactly(false, true);
+        assertThat(ReadWriteRoutingDataSource.isPinnedToPrimary()).isFalse();
+        assertThat(meterRegistry.get("emitter.type.cache.primary.loads").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test revision required inside a transaction applies after commit only")
+    void givenTransaction_whenRequireRevision_thenRevisionIsRequiredAfterCommit() {
+        // given
+        EmitterTypeCacheLoader emitterTypeCacheLoader = loader(true);
+        TransactionSynchronizationManager.initSynchronization();
+
+        given(emitterTypeEventRepository.findLastSequenceNumber()).willReturn(5L);
+
+        // when
+        emitterTypeCacheLoader.requireRevision(6L);
+        emitterTypeCacheLoader.load(this::recordPinned);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        emitterTypeCacheLoader.load(this::recordPinned);
+
+        // then
+        assertThat(pinned).containsExactly(false, false, true);
+    }
+
+    private EmitterTypeCacheLoader loader(boolean routingEnabled) {
+        return new EmitterTypeCacheLoader(emitterTypeEventRepository, transactionManager, routingEnabled);
+    }
+
+    private String recordPinned() {
+        pinned.add(ReadWriteRoutingDataSource.isPinnedToPrimary());
+        return "loaded";
+    }
+}
@@ -0,0 +1,97 @@
+package ru.klokov.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ru.klokov.backend.repository.EmitterTypeRepository;
+import ru.klokov.backend.service.implementation.EmitterTypeCounter;
+
+@ExtendWith(MockitoExtension.class)
+public class EmitterTypeCounterTest {
+
+    @Mock
+    private EmitterTypeRepository emitterTypeRepository;
+
+    @InjectMocks
+    private EmitterTypeCounter emitterTypeCounter;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("Test count is loaded from the database once")
+    void givenUnreconciledCounter_whenGetCountTwice_thenDatabaseIsCountedOnce() {
+        // given
+        given(emitterTypeRepository.count()).willReturn(7L);
+
+        // when
+        emitterTypeCounter.getCount();
+        long actual = emitterTypeCounter.getCount();
+
+        // then
+        assertThat(actual).isEqualTo(7);
+        verify(emitterTypeRepository, times(1)).count();
+    }
+
+    @Test
+    @DisplayName("Test adjustment outside a transaction is applied at once")
+    void givenNoTransaction_whenAdjust_thenCountChangesImmediately() {
+        // given
+        given(emitterTypeRepository.count()).willReturn(7L);
+        emitterTypeCounter.reconcile();
+
+        // when
+        emitterTypeCounter.adjust(2);
+
+        // then
+        assertThat(emitterTypeCounter.getCount()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Test adjustment inside a transaction is applied after commit only")
+    void givenTransaction_whenAdjust_thenCountChangesAfterCommit() {
+        // given
+        given(emitterTypeRepository.count()).willReturn(7L);
+        emitterTypeCounter.reconcile();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        emitterTypeCounter.adjust(-1);
+        long beforeCommit = emitterTypeCounter.getCount();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // then
+        assertThat(beforeCommit).isEqualTo(7);
+        assertThat(emitterTypeCounter.getCount()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Test reconcile replaces drifted count with database count")
+    void givenDriftedCount_whenReconcile_thenDatabaseCountWins() {
+        // given
+        given(emitterTypeRepository.count()).willReturn(7L, 10L);
+        emitterTypeCounter.reconcile();
+        emitterTypeCounter.adjust(1);
+
+        // when
+        emitterTypeCounter.reconcile();
+
+        // then
+        assertThat(emitterTypeCounter.getCount()).isEqualTo(10);
+    }
+}
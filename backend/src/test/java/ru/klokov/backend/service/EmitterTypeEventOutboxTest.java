@@ -0,0 +1,164 @@
+package ru.klokov.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.model.EmitterTypeEvent;
+import ru.klokov.backend.model.EmitterTypeEventType;
+import ru.klokov.backend.model.EmitterTypeTombstone;
+import ru.klokov.backend.repository.EmitterTypeEventRepository;
+import ru.klokov.backend.repository.EmitterTypeTombstoneRepository;
+import ru.klokov.backend.service.implementation.EmitterTypeCacheInvalidationBus;
+import ru.klokov.backend.service.implementation.EmitterTypeCacheLoader;
+import ru.klokov.backend.service.implementation.EmitterTypeEventOutbox;
+
+@DataJpaTest
+@Import(EmitterTypeEventOutbox.class)
+public class EmitterTypeEventOutboxTest {
+
+    @Autowired
+    private EmitterTypeEventOutbox emitterTypeEventOutbox;
+
+    @Autowired
+    private EmitterTypeEventRepository emitterTypeEventRepository;
+
+    @Autowired
+    private EmitterTypeTombstoneRepository emitterTypeTombstoneRepository;
+
+    @MockitoBean
+    private EmitterTypeCacheInvalidationBus emitterTypeCacheInvalidationBus;
+
+    @MockitoBean
+    private EmitterTypeCacheLoader emitterTypeCacheLoader;
+
+    @Test
+    @DisplayName("Test reserved revisions are consecutive and become event sequence numbers")
+    void givenTwoMutations_whenReserveRevisionsAndRecord_thenSequenceNumbersAreConsecutive() {
+        // given
+        long lastSequenceNumber = emitterTypeEventRepository.findLastSequenceNumber();
+
+        // when
+        long createdRevision = emitterTypeEventOutbox.reserveRevisions(2);
+        emitterTypeEventOutbox.recordCreated(List.of(
+                EmitterType.builder().id(1L).name("Type 1").version(0L).revision(createdRevision).build(),
+                EmitterType.builder().id(2L).name("Type 2").version(0L).revision(createdRevision + 1).build()));
+        long deletedRevision = emitterTypeEventOutbox.reserveRevisions(1);
+        emitterTypeEventOutbox.recordDeleted(1L, deletedRevision);
+
+        // then
+        List<EmitterTypeEvent> events = emitterTypeEventRepository
+                .findBySequenceNumberGreaterThanOrderBySequenceNumber(lastSequenceNumber, Limit.of(10));
+
+        assertThat(createdRevision).isEqualTo(lastSequenceNumber + 1);
+        assertThat(deletedRevision).isEqualTo(lastSequenceNumber + 3);
+        assertThat(events)
+                .extracting(EmitterTypeEvent::getSequenceNumber)
+                .containsExactly(lastSequenceNumber + 1, lastSequenceNumber + 2, lastSequenceNumber + 3);
+        assertThat(events)
+                .extracting(EmitterTypeEvent::getType)
+                .containsExactly(EmitterTypeEventType.CREATED, EmitterTypeEventType.CREATED, EmitterTypeEventType.DELETED);
+        assertThat(emitterTypeEventOutbox.getLastRevision()).isEqualTo(lastSequenceNumber + 3);
+        verify(emitterTypeCacheLoader).requireRevision(lastSequenceNumber + 2);
+        verify(emitterTypeCacheLoader).requireRevision(lastSequenceNumber + 3);
+        assertThat(emitterTypeTombstoneRepository.findById(1L))
+                .get()
+                .extracting(EmitterTypeTombstone::getRevision)
+                .isEqualTo(deletedRevision);
+    }
+
+    @Test
+    @DisplayName("Test events are only recorded inside the mutation transaction")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void givenNoTransaction_whenRecord_thenIllegalTransactionStateExceptionIsThrown() {
+        // when - then
+        assertThatThrownBy(() -> emitterTypeEventOutbox.recordDeleted(1L, 1L))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    @Test
+    @DisplayName("Test purge removes events older than the retention")
+    void givenOldAndRecentEvents_whenPurge_thenOnlyRecentEventsRemain() {
+        // given
+        emitterTypeEventRepository.saveAllAndFlush(List.of(
+                EmitterTypeEvent.builder().sequenceNumber(1_000_001L).type(EmitterTypeEventType.DELETED)
+                        .emitterTypeId(1L).createdAt(Instant.now().minus(Duration.ofDays(30))).build(),
+                EmitterTypeEvent.builder().sequenceNumber(1_000_002L).type(EmitterTypeEventType.DELETED)
+                        .emitterTypeId(2L).createdAt(Instant.now()).build()));
+
+        // when
+        emitterTypeEventOutbox.purge();
+
+        // then
+        assertThat(emitterTypeEventRepository.findById(1_000_001L)).isEmpty();
+        assertThat(emitterTypeEventRepository.findById(1_000_002L)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Test tombstone compaction removes old tombstones and raises the compacted revision")
+    void givenOldAndRecentTombstones_whenCompactTombstones_thenCompactedRevisionCoversRemovedTombstones() {
+        // given
+        emitterTypeTombstoneRepository.saveAllAndFlush(List.of(
+                EmitterTypeTombstone.builder().emitterTypeId(1L).revision(1_000_001L)
+                        .deletedAt(Instant.now().minus(Duration.ofDays(60))).build(),
+                EmitterTypeTombstone.builder().emitterTypeId(2L).revision(1_000_002L)
+                        .deletedAt(Instant.now()).build()));
+
+        // when
+        emitterTypeEventOutbox.compactTombstones();
+
+        // then
+        assertThat(emitterTypeTombstoneRepository.findById(1L)).isEmpty();
+        assertThat(emitterTypeTombstoneRepository.findById(2L)).isPresent();
+        assertThat(emitterTypeTombstoneRepository.findCompactedRevision()).isEqualTo(1_000_001L);
+    }
+
+    @Test
+    @DisplayName("Test recorded changes are published for cache invalidation")
+    void givenMutations_whenRecord_thenRevisionRangesArePublished() {
+        // given
+        long createdRevision = emitterTypeEventOutbox.reserveRevisions(2);
+        long updatedRevision = emitterTypeEventOutbox.reserveRevisions(1);
+
+        // when
+        emitterTypeEventOutbox.recordCreated(List.of(
+                EmitterType.builder().id(1L).name("Type 1").version(0L).revision(createdRevision).build(),
+                EmitterType.builder().id(2L).name("Type 2").version(0L).revision(createdRevision + 1).build()));
+        emitterTypeEventOutbox.recordUpdated(
+                EmitterType.builder().id(2L).name("Type 3").version(1L).revision(updatedRevision).build());
+
+        // then
+        verify(emitterTypeCacheInvalidationBus).publish(createdRevision, createdRevision + 1, null);
+        verify(emitterTypeCacheInvalidationBus).publish(updatedRevision, updatedRevision, 2L);
+    }
+
+    @Test
+    @DisplayName("Test lock revisions reserves no revision")
+    void givenSequence_whenLockRevisions_thenLastRevisionIsUnchanged() {
+        // given
+        long lastRevision = emitterTypeEventOutbox.getLastRevision();
+
+        // when
+        emitterTypeEventOutbox.lockRevisions();
+
+        // then
+        assertThat(emitterTypeEventOutbox.getLastRevision()).isEqualTo(lastRevision);
+        assertThat(emitterTypeEventOutbox.reserveRevisions(1)).isEqualTo(lastRevision + 1);
+    }
+}
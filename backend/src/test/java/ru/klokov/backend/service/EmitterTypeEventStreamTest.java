@@ -0,0 +1,231 @@
+package ru.klokov.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ru.klokov.backend.mapper.EmitterTypeMapper;
+import ru.klokov.backend.model.EmitterTypeEvent;
+import ru.klokov.backend.model.EmitterTypeEventType;
+import ru.klokov.backend.repository.EmitterTypeEventRepository;
+import ru.klokov.backend.service.implementation.EmitterTypeEventStream;
+
+@ExtendWith(MockitoExtension.class)
+public class EmitterTypeEventStreamTest {
+
+    @Mock
+    private EmitterTypeEventRepository emitterTypeEventRepository;
+
+    @Mock
+    private EmitterTypeMapper mapper;
+
+    @InjectMocks
+    private EmitterTypeEventStream emitterTypeEventStream;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(emitterTypeEventStream, "STREAM_BATCH_SIZE", 10);
+        ReflectionTestUtils.setField(emitterTypeEventStream, "STREAM_QUEUE_CAPACITY", 10);
+        ReflectionTestUtils.setField(emitterTypeEventStream, "STREAM_SEND_TIMEOUT", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(emitterTypeEventStream, "sendExecutor", (Executor) Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Test up to date subscriber receives every new event once")
+    void givenUpToDateSubscriber_whenPollTwice_thenNewEventsAreSentOnce() throws IOException {
+        // given
+        SseEmitter emitter = mock(SseEmitter.class);
+        emitterTypeEventStream.register(emitter, 5L);
+
+        given(emitterTypeEventRepository.findLastSequenceNumber()).willReturn(5L);
+        given(emitterTypeEventRepository.findBySequenceNumberGreaterThanOrderBySequenceNumber(5L, Limit.of(10)))
+                .willReturn(List.of(event(6L), event(7L)));
+        given(emitterTypeEventRepository.findBySequenceNumberGreaterThanOrderBySequenceNumber(7L, Limit.of(10)))
+                .willReturn(List.of());
+
+        // when
+        emitterTypeEventStream.poll();
+        emitterTypeEventStream.poll();
+
+        // then
+        verify(emitter, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    @DisplayName("Test resumed subscriber catches up from its own position")
+    void givenSubscriberBehind_whenPoll_thenBacklogIsSent() throws IOException {
+        // given
+        SseEmitter emitter = mock(SseEmitter.class);
+        emitterTypeEventStream.register(emitter, 2L);
+
+        given(emitterTypeEventRepository.findLastSequenceNumber()).willReturn(5L);
+        given(emitterTypeEventRepository.findBySequenceNumberGreaterThanOrderBySequenceNumber(5L, Limit.of(10)))
+                .willReturn(List.of());
+        given(emitterTypeEventRepository.findBySequenceNumberGreaterThanOrderBySequenceNumber(2L, Limit.of(10)))
+                .willReturn(List.of(event(3L), event(4L), event(5L)));
+
+        // when
+        emitterTypeEventStream.poll();
+
+        // then
+        ArgumentCaptor<SseEmitter.SseEventBuilder> events = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, times(3)).send(events.capture());
+        assertThat(render(events.getAllValues().get(0))).contains("id:3", "event:emitter-type");
+    }
+
+    @Test
+    @DisplayName("Test subscriber behind purged events is told to reset")
+    void givenPurgedBacklog_whenPoll_thenResetEventIsSent() throws IOException {
+        // given
+        SseEmitter emitter = mock(SseEmitter.class);
+        emitterTypeEventStream.register(emitter, 2L);
+
+        given(emitterTypeEventRepository.findLastSequenceNumber()).willReturn(10L);
+        given(emitterTypeEventRepository.findBySequenceNumberGreaterThanOrderBySequenceNumber(10L, Limit.of(10)))
+                .willReturn(List.of());
+        given(emitterTypeEventRepository.findBySequenceNumberGreaterThanOrderBySequenceNumber(2L, Limit.of(10)))
+                .willReturn(List.of(event(8L), event(9L), event(10L)));
+
+        // when
+        emitterTypeEventStream.poll();
+
+        // then
+        ArgumentCaptor<SseEmitter.SseEventBuilder> events = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, times(1)).send(events.capture());
+        assertThat(render(events.getValue())).contains("id:10", "event:reset");
+    }
+
+    @Test
+    @DisplayName("Test subscriber whose connection fails is dropped")
+    void givenBrokenConnection_whenHeartbeat_thenSubscriptionIsRemoved() throws IOException {
+        // given
+        SseEmitter emitter = mock(SseEmitter.class);
+        emitterTypeEventStream.register(emitter, 0L);
+        willThrow(new IOException("Broken pipe")).given(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+        // when
+        emitterTypeEventStream.heartbeat();
+
+        // then
+        assertThat(emitterTypeEventStream.getSubscriberCount()).isZero();
+        verify(emitter).completeWithError(any(IOException.class));
+    }
+
+    @Test
+    @DisplayName("Test subscriber that does not keep up with its queue is dropped")
+    void givenFullSendQueue_whenPoll_thenSubscriptionIsRemoved() throws IOException {
+        // given
+        List<Runnable> sends = new ArrayList<>();
+        ReflectionTestUtils.setField(emitterTypeEventStream, "STREAM_QUEUE_CAPACITY", 2);
+        ReflectionTestUtils.setField(emitterTypeEventStream, "sendExecutor", (Executor) sends::add);
+
+        SseEmitter emitter = mock(SseEmitter.class);
+        emitterTypeEventStream.register(emitter, 5L);
+
+        given(emitterTypeEventRepository.findLastSequenceNumber()).willReturn(5L);
+        given(emitterTypeEventRepository.findBySequenceNumberGreaterThanOrderBySequenceNumber(5L, Limit.of(10)))
+                .willReturn(List.of(event(6L), event(7L), event(8L)));
+
+        // when
+        emitterTypeEventStream.poll();
+        sends.forEach(Runnable::run);
+
+        // then
+        assertThat(emitterTypeEventStream.getSubscriberCount()).isZero();
+        verify(emitter, never()).send(any(SseEmitter.SseEventBuilder.class));
+        verify(emitter).completeWithError(any(IOException.class));
+    }
+
+    @Test
+    @DisplayName("Test subscriber blocked in a send is dropped and completed once the send returns")
+    void givenSendBlockedLongerThanTimeout_whenPoll_thenSubscriptionIsRemoved() throws IOException {
+        // given
+        AtomicLong clock = new AtomicLong();
+        AtomicInteger subscribersDuringSend = new AtomicInteger(-1);
+        ReflectionTestUtils.setField(emitterTypeEventStream, "nanoClock", (LongSupplier) clock::get);
+
+        SseEmitter emitter = mock(SseEmitter.class);
+        emitterTypeEventStream.register(emitter, 0L);
+
+        // The scheduler polls while the write is still blocked past the timeout.
+        willAnswer(invocation -> {
+            clock.addAndGet(Duration.ofSeconds(31).toNanos());
+            emitterTypeEventStream.poll();
+            subscribersDuringSend.set(emitterTypeEventStream.getSubscriberCount());
+            return null;
+        }).given(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+        // when
+        emitterTypeEventStream.heartbeat();
+
+        // then
+        assertThat(subscribersDuringSend).hasValue(0);
+        assertThat(emitterTypeEventStream.getSubscriberCount()).isZero();
+        verify(emitter).completeWithError(any(IOException.class));
+    }
+
+    @Test
+    @DisplayName("Test subscriber whose send finishes within the timeout is kept")
+    void givenSendWithinTimeout_whenPoll_thenSubscriptionIsKept() throws IOException {
+        // given
+        AtomicLong clock = new AtomicLong();
+        ReflectionTestUtils.setField(emitterTypeEventStream, "nanoClock", (LongSupplier) clock::get);
+
+        SseEmitter emitter = mock(SseEmitter.class);
+        emitterTypeEventStream.register(emitter, 0L);
+
+        willAnswer(invocation -> {
+            clock.addAndGet(Duration.ofSeconds(29).toNanos());
+            emitterTypeEventStream.poll();
+            return null;
+        }).given(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+        // when
+        emitterTypeEventStream.heartbeat();
+
+        // then
+        assertThat(emitterTypeEventStream.getSubscriberCount()).isEqualTo(1);
+        verify(emitter, never()).completeWithError(any());
+    }
+
+    private static EmitterTypeEvent event(long sequenceNumber) {
+        return EmitterTypeEvent.builder()
+                .sequenceNumber(sequenceNumber)
+                .type(EmitterTypeEventType.UPDATED)
+                .emitterTypeId(1L)
+                .name("Type 1")
+                .build();
+    }
+
+    private static String render(SseEmitter.SseEventBuilder event) {
+        return event.build().stream().map(data -> String.valueOf(data.getData())).collect(Collectors.joining());
+    }
+}
@@ -0,0 +1,193 @@
+package ru.klokov.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.validation.Validation;
+import ru.klokov.backend.dto.emittertype.EmitterTypeImportResponse;
+import ru.klokov.backend.dto.emittertype.EmitterTypeImportStatus;
+import ru.klokov.backend.exception.ExpectedServerException;
+import ru.klokov.backend.service.implementation.DefaultEmitterTypeImportService;
+
+@ExtendWith(MockitoExtension.class)
+public class EmitterTypeImportServiceTest {
+
+    @Mock
+    private EmitterTypeService emitterTypeService;
+
+    private DefaultEmitterTypeImportService emitterTypeImportService;
+
+    @BeforeEach
+    void setUp() {
+        emitterTypeImportService = new DefaultEmitterTypeImportService(
+                emitterTypeService,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(emitterTypeImportService, "IMPORT_BATCH_SIZE", 2);
+    }
+
+    @Test
+    @DisplayName("Test import emitter types functionality (created, duplicate and invalid rows)")
+    void givenMixedRows_whenImportEmitterTypes_thenPerRowReportIsReturned() {
+        // given
+        String json = """
+                [{ "name": "Type 1" }, { "name": "Ty" }, { "name": "Type 2" }]
+                """;
+
+        given(emitterTypeService.createEmitterTypes(anyList()))
+                .willReturn(List.of(true))
+                .willReturn(List.of(false));
+
+        // when
+        EmitterTypeImportResponse response = emitterTypeImportService.importEmitterTypes(jsonStream(json));
+
+        // then
+        assertThat(response.getTotal()).isEqualTo(3);
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getInvalid()).isEqualTo(1);
+        assertThat(response.getDuplicates()).isEqualTo(1);
+        assertThat(response.getRows())
+                .extracting("row", "status")
+                .containsExactly(
+                        tuple(1, EmitterTypeImportStatus.CREATED),
+                        tuple(2, EmitterTypeImportStatus.INVALID),
+                        tuple(3, EmitterTypeImportStatus.DUPLICATE));
+        assertThat(response.getRows().get(1).getErrors())
+                .containsExactly("Тип излучателя должен состоять минимум из 3 символов");
+        verify(emitterTypeService, times(2)).createEmitterTypes(anyList());
+    }
+
+    @Test
+    @DisplayName("Test import emitter types from CSV functionality")
+    void givenCsvWithHeader_whenImportEmitterTypes_thenNameColumnIsImported() {
+        // given
+        String csv = """
+                id,name
+                1,Type 1
+                2,"Type, ""quoted""\"
+                """;
+
+        given(emitterTypeService.createEmitterTypes(anyList())).willReturn(List.of(true, true));
+
+        // when
+        EmitterTypeImportResponse response = emitterTypeImportService.importEmitterTypes(new StringReader(csv));
+
+        // then
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getRows())
+                .extracting("name")
+                .containsExactly("Type 1", "Type, \"quoted\"");
+    }
+
+    @Test
+    @DisplayName("Test import emitter types functionality (only invalid rows)")
+    void givenOnlyInvalidRows_whenImportEmitterTypes_thenNothingIsInserted() {
+        // when
+        EmitterTypeImportResponse response = emitterTypeImportService.importEmitterTypes(
+                jsonStream("[{ \"name\": \"\" }]"));
+
+        // then
+        assertThat(response.getInvalid()).isEqualTo(1);
+        verifyNoInteractions(emitterTypeService);
+    }
+
+    @Test
+    @DisplayName("Test import emitter types from CSV functionality (quoted line breaks)")
+    void givenCsvWithQuotedLineBreak_whenImportEmitterTypes_thenRecordSpansLines() {
+        // given
+        String csv = "id,name\n1,\"Type 1\nsecond line\"\n\n2,Type 2\n";
+
+        given(emitterTypeService.createEmitterTypes(anyList())).willReturn(List.of(true, true));
+
+        // when
+        EmitterTypeImportResponse response = emitterTypeImportService.importEmitterTypes(new StringReader(csv));
+
+        // then
+        assertThat(response.getTotal()).isEqualTo(2);
+        assertThat(response.getRows())
+                .extracting("row", "name")
+                .containsExactly(
+                        tuple(1, "Type 1\nsecond line"),
+                        tuple(2, "Type 2"));
+    }
+
+    @Test
+    @DisplayName("Test import emitter types from CSV functionality (unterminated quote)")
+    void givenCsvWithUnterminatedQuote_whenImportEmitterTypes_thenBadRequestIsThrown() {
+        // given
+        String csv = "name\n\"Type 1\n";
+
+        // when - then
+        assertThatThrownBy(() -> emitterTypeImportService.importEmitterTypes(new StringReader(csv)))
+                .isInstanceOf(ExpectedServerException.class)
+                .hasMessage("Некорректный формат файла импорта");
+        verifyNoInteractions(emitterTypeService);
+    }
+
+    @Test
+    @DisplayName("Test import emitter types functionality (null row)")
+    void givenNullRow_whenImportEmitterTypes_thenRowIsReportedInvalid() {
+        // given
+        String json = "[{ \"name\": \"Type 1\" }, null]";
+
+        given(emitterTypeService.createEmitterTypes(anyList())).willReturn(List.of(true));
+
+        // when
+        EmitterTypeImportResponse response = emitterTypeImportService.importEmitterTypes(jsonStream(json));
+
+        // then
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getInvalid()).isEqualTo(1);
+        assertThat(response.getRows())
+                .extracting("row", "status")
+                .containsExactly(
+                        tuple(1, EmitterTypeImportStatus.CREATED),
+                        tuple(2, EmitterTypeImportStatus.INVALID));
+        assertThat(response.getRows().get(1).getErrors()).containsExactly("Заполните поле \"Тип излучателя\"");
+    }
+
+    @Test
+    @DisplayName("Test import emitter types functionality (body is not an array)")
+    void givenJsonObject_whenImportEmitterTypes_thenBadRequestIsThrown() {
+        // when - then
+        assertThatThrownBy(() -> emitterTypeImportService.importEmitterTypes(jsonStream("{ \"name\": \"Type 1\" }")))
+                .isInstanceOf(ExpectedServerException.class)
+                .hasMessage("Некорректный формат файла импорта");
+        verifyNoInteractions(emitterTypeService);
+    }
+
+    @Test
+    @DisplayName("Test import emitter types functionality (unterminated array)")
+    void givenUnterminatedJsonArray_whenImportEmitterTypes_thenBadRequestIsThrown() {
+        // when - then
+        assertThatThrownBy(() -> emitterTypeImportService.importEmitterTypes(jsonStream("[{ \"name\": \"Type 1\" }")))
+                .isInstanceOf(ExpectedServerException.class)
+                .hasMessage("Некорректный формат файла импорта");
+        verifyNoInteractions(emitterTypeService);
+    }
+
+    private static InputStream jsonStream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,187 @@
+package ru.klokov.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ru.klokov.backend.config.ReadWriteRoutingDataSource;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.repository.EmitterTypeEventRepository;
+import ru.klokov.backend.repository.EmitterTypeRepository;
+import ru.klokov.backend.service.implementation.EmitterTypeCacheLoader;
+import ru.klokov.backend.service.implementation.EmitterTypeLookupCoalescer;
+
+public class EmitterTypeLookupCoalescerTest {
+    private static final int CALLERS = 8;
+
+    private EmitterTypeRepository emitterTypeRepository;
+    private EmitterTypeEventRepository emitterTypeEventRepository;
+    private PlatformTransactionManager transactionManager;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        emitterTypeRepository = mock(EmitterTypeRepository.class);
+        emitterTypeEventRepository = mock(EmitterTypeEventRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Test identical concurrent lookups share a single query")
+    void givenConcurrentLookupsOfSameId_whenFindById_thenSingleQueryIsIssued() throws Exception {
+        // given
+        EmitterTypeLookupCoalescer coalescer = coalescer(Duration.ZERO, 100);
+        EmitterType emitterType = EmitterType.builder().id(1L).name("Type 1").build();
+
+        given(emitterTypeRepository.findAllById(anyIterable())).willAnswer(invocation -> {
+            awaitCoalescedLookups(coalescer, CALLERS - 1);
+            return List.of(emitterType);
+        });
+
+        // when
+        List<Future<Optional<EmitterType>>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++)
+            results.add(executor.submit(() -> coalescer.findById(1L)));
+
+        // then
+        for (Future<Optional<EmitterType>> result : results)
+            assertThat(result.get(5, TimeUnit.SECONDS)).contains(emitterType);
+
+        verify(emitterTypeRepository, times(1)).findAllById(anyIterable());
+        assertThat(coalescer.getLookups()).isEqualTo(CALLERS);
+        assertThat(coalescer.getQueries()).isEqualTo(1);
+        assertThat(coalescer.getCoalescingRatio()).isEqualTo(CALLERS);
+    }
+
+    @Test
+    @DisplayName("Test distinct lookups within the window are batched into one query")
+    @SuppressWarnings("unchecked")
+    void givenDistinctIdsWithinWindow_whenFindById_thenIdsAreLoadedTogether() throws Exception {
+        // given
+        EmitterTypeLookupCoalescer coalescer = coalescer(Duration.ofSeconds(1), 100);
+        CountDownLatch start = new CountDownLatch(1);
+
+        given(emitterTypeRepository.findAllById(anyIterable())).willReturn(List.of(
+                EmitterType.builder().id(1L).name("Type 1").build(),
+                EmitterType.builder().id(2L).name("Type 2").build()));
+
+        // when
+        List<Future<Optional<EmitterType>>> results = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            long typeId = id;
+            results.add(executor.submit(() -> {
+                start.await();
+                return coalescer.findById(typeId);
+            }));
+        }
+        start.countDown();
+
+        // then
+        assertThat(results.get(0).get(5, TimeUnit.SECONDS)).map(EmitterType::getName).contains("Type 1");
+        assertThat(results.get(1).get(5, TimeUnit.SECONDS)).map(EmitterType::getName).contains("Type 2");
+        assertThat(results.get(2).get(5, TimeUnit.SECONDS)).isEmpty();
+
+        ArgumentCaptor<Iterable<Long>> ids = ArgumentCaptor.forClass(Iterable.class);
+        verify(emitterTypeRepository, times(1)).findAllById(ids.capture());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Test full batch is loaded without waiting for the window")
+    void givenMaxBatchSizeReached_whenFindById_thenBatchIsLoadedImmediately() {
+        // given
+        EmitterTypeLookupCoalescer coalescer = coalescer(Duration.ofSeconds(30), 1);
+        EmitterType emitterType = EmitterType.builder().id(1L).name("Type 1").build();
+
+        given(emitterTypeRepository.findAllById(anyIterable())).willReturn(List.of(emitterType));
+
+        // when
+        Optional<EmitterType> actual = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> coalescer.findById(1L));
+
+        // then
+        assertThat(actual).contains(emitterType);
+    }
+
+    @Test
+    @DisplayName("Test failed load is reported to the caller and not remembered")
+    void givenFailingQuery_whenFindById_thenExceptionIsPropagatedAndNextLookupRetries() {
+        // given
+        EmitterTypeLookupCoalescer coalescer = coalescer(Duration.ZERO, 100);
+        EmitterType emitterType = EmitterType.builder().id(1L).name("Type 1").build();
+
+        given(emitterTypeRepository.findAllById(anyIterable()))
+                .willThrow(new QueryTimeoutException("timeout"))
+                .willReturn(List.of(emitterType));
+
+        // when - then
+        assertThatThrownBy(() -> coalescer.findById(1L)).isInstanceOf(QueryTimeoutException.class);
+        assertThat(coalescer.findById(1L)).contains(emitterType);
+    }
+
+    @Test
+    @DisplayName("Test lookups that fill the cache are loaded from a replica that is recent enough")
+    void givenRecentReplica_whenFindById_thenBatchIsNotLoadedFromPrimary() {
+        // given
+        EmitterTypeCacheLoader emitterTypeCacheLoader =
+                new EmitterTypeCacheLoader(emitterTypeEventRepository, transactionManager, true);
+        EmitterTypeLookupCoalescer coalescer =
+                new EmitterTypeLookupCoalescer(emitterTypeRepository, emitterTypeCacheLoader, Duration.ZERO, 100);
+        List<Boolean> pinned = new ArrayList<>();
+
+        emitterTypeCacheLoader.requireRevision(7L);
+        given(emitterTypeEventRepository.findLastSequenceNumber()).willReturn(7L);
+
+        given(emitterTypeRepository.findAllById(anyIterable())).willAnswer(invocation -> {
+            pinned.add(ReadWriteRoutingDataSource.isPinnedToPrimary());
+            return List.of();
+        });
+
+        // when
+        coalescer.findById(1L);
+
+        // then
+        assertThat(pinned).containsExactly(false);
+    }
+
+    private EmitterTypeLookupCoalescer coalescer(Duration window, int maxBatchSize) {
+        return new EmitterTypeLookupCoalescer(emitterTypeRepository,
+                new EmitterTypeCacheLoader(emitterTypeEventRepository, transactionManager, false), window, maxBatchSize);
+    }
+
+    private static void awaitCoalescedLookups(EmitterTypeLookupCoalescer coalescer, int expected)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (coalescer.getCoalescedLookups() < expected && System.nanoTime() < deadline)
+            Thread.sleep(1);
+    }
+}
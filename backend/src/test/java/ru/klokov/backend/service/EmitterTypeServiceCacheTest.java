@@ -0,0 +1,177 @@
+package ru.klokov.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import jakarta.persistence.EntityManager;
+import ru.klokov.backend.config.CacheConfig;
+import ru.klokov.backend.config.ReadWriteRoutingDataSource;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.repository.EmitterTypeRepository;
+import ru.klokov.backend.repository.EmitterTypeTombstoneRepository;
+import ru.klokov.backend.service.implementation.DefaultEmitterTypeService;
+import ru.klokov.backend.service.implementation.EmitterTypeCacheLoader;
+import ru.klokov.backend.service.implementation.EmitterTypeCounter;
+import ru.klokov.backend.service.implementation.EmitterTypeEventOutbox;
+import ru.klokov.backend.service.implementation.EmitterTypeLookupCoalescer;
+
+@SpringBootTest(classes = { CacheConfig.class, DefaultEmitterTypeService.class }, properties = {
+        "cache.emitter-types.maximum-size=100",
+        "cache.emitter-types.expire-after-write=1m" })
+public class EmitterTypeServiceCacheTest {
+
+    @MockitoBean
+    private EmitterTypeRepository emitterTypeRepository;
+
+    @MockitoBean
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private EmitterTypeLookupCoalescer emitterTypeLookupCoalescer;
+
+    @MockitoBean
+    private EmitterTypeCacheLoader emitterTypeCacheLoader;
+
+    @MockitoBean
+    private EmitterTypeCounter emitterTypeCounter;
+
+    @MockitoBean
+    private EmitterTypeEventOutbox emitterTypeEventOutbox;
+
+    @MockitoBean
+    private EmitterTypeTombstoneRepository emitterTypeTombstoneRepository;
+
+    @Autowired
+    private EmitterTypeService emitterTypeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        given(emitterTypeCacheLoader.load(any())).willAnswer(invocation -> {
+            Supplier<?> loader = invocation.getArgument(0);
+            return loader.get();
+        });
+    }
+
+    @Test
+    @DisplayName("Test get emitter type by id is served from cache on repeated calls")
+    void givenCachedEmitterType_whenGetEmitterTypeByIdTwice_thenRepositoryIsCalledOnce() {
+        // given
+        Long typeId = 1L;
+        EmitterType emitterType = EmitterType.builder().id(typeId).name("Type 1").build();
+
+        given(emitterTypeLookupCoalescer.findById(typeId)).willReturn(Optional.of(emitterType));
+
+        // when
+        emitterTypeService.getEmitterTypeById(typeId);
+        EmitterType actual = emitterTypeService.getEmitterTypeById(typeId);
+
+        // then
+        assertThat(actual.getName()).isEqualTo("Type 1");
+        verify(emitterTypeLookupCoalescer, times(1)).findById(typeId);
+    }
+
+    @Test
+    @DisplayName("Test update emitter type evicts cached entry and cached list")
+    void givenCachedEmitterType_whenUpdateEmitterType_thenCachedValuesAreEvicted() {
+        // given
+        Long typeId = 1L;
+        EmitterType existing = EmitterType.builder().id(typeId).name("Type 1").build();
+
+        given(emitterTypeRepository.findAll()).willReturn(List.of(existing));
+        given(emitterTypeLookupCoalescer.findById(typeId)).willReturn(Optional.of(existing));
+        given(emitterTypeRepository.updateName(eq(typeId), isNull(), eq("Updated type"), any(Instant.class), anyLong()))
+                .willReturn(Optional.of(EmitterType.builder().id(typeId).name("Updated type").version(1L).build()));
+
+        emitterTypeService.getAllEmitterTypes();
+        emitterTypeService.getEmitterTypeById(typeId);
+
+        // when
+        emitterTypeService.updateEmitterType(typeId, EmitterType.builder().name("Updated type").build(), null);
+
+        // then
+        assertThat(cacheManager.getCache(CacheConfig.EMITTER_TYPES_CACHE).get(typeId)).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.EMITTER_TYPE_LISTS_CACHE).get("all")).isNull();
+    }
+
+    @Test
+    @DisplayName("Test create emitter type evicts cached list")
+    void givenCachedList_whenCreateEmitterType_thenCachedListIsEvicted() {
+        // given
+        EmitterType created = EmitterType.builder().id(2L).name("Type 2").build();
+
+        given(emitterTypeRepository.findAll()).willReturn(List.of());
+        given(emitterTypeRepository.save(any(EmitterType.class))).willReturn(created);
+
+        emitterTypeService.getAllEmitterTypes();
+
+        // when
+        emitterTypeService.createEmitterType(EmitterType.builder().name("Type 2").build());
+        emitterTypeService.getAllEmitterTypes();
+
+        // then
+        verify(emitterTypeRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Test get emitter type by id bypasses cache for requests pinned to primary")
+    void givenPinnedRequest_whenGetEmitterTypeById_thenCacheIsBypassed() {
+        // given
+        Long typeId = 1L;
+        EmitterType emitterType = EmitterType.builder().id(typeId).name("Type 1").build();
+
+        given(emitterTypeLookupCoalescer.findById(typeId)).willReturn(Optional.of(emitterType));
+
+        // when
+        ReadWriteRoutingDataSource.pinToPrimary();
+        try {
+            emitterTypeService.getEmitterTypeById(typeId);
+            emitterTypeService.getEmitterTypeById(typeId);
+        } finally {
+            ReadWriteRoutingDataSource.unpinFromPrimary();
+        }
+
+        // then
+        verify(emitterTypeLookupCoalescer, times(2)).findById(typeId);
+        assertThat(cacheManager.getCache(CacheConfig.EMITTER_TYPES_CACHE).get(typeId)).isNull();
+    }
+
+    @Test
+    @DisplayName("Test get all emitter types loads a cache miss through the cache loader")
+    void givenCacheMiss_whenGetAllEmitterTypesTwice_thenListIsLoadedOnceThroughCacheLoader() {
+        // given
+        given(emitterTypeRepository.findAll()).willReturn(List.of());
+
+        // when
+        emitterTypeService.getAllEmitterTypes();
+        emitterTypeService.getAllEmitterTypes();
+
+        // then
+        verify(emitterTypeCacheLoader, times(1)).load(any());
+        assertThat(ReadWriteRoutingDataSource.isPinnedToPrimary()).isFalse();
+        assertThat(cacheManager.getCache(CacheConfig.EMITTER_TYPE_LISTS_CACHE).get("all")).isNotNull();
+    }
+}
@@ -0,0 +1,112 @@
+package ru.klokov.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import ru.klokov.backend.config.MetricsConfig;
+import ru.klokov.backend.exception.ServerException;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.repository.EmitterTypeRepository;
+import ru.klokov.backend.repository.EmitterTypeTombstoneRepository;
+import ru.klokov.backend.service.implementation.DefaultEmitterTypeService;
+import ru.klokov.backend.service.implementation.EmitterTypeCacheLoader;
+import ru.klokov.backend.service.implementation.EmitterTypeCounter;
+import ru.klokov.backend.service.implementation.EmitterTypeEventOutbox;
+import ru.klokov.backend.service.implementation.EmitterTypeLookupCoalescer;
+
+@SpringBootTest(classes = {
+        AopAutoConfiguration.class,
+        MetricsConfig.class,
+        DefaultEmitterTypeService.class,
+        EmitterTypeServiceMetricsTest.MeterRegistryConfig.class })
+public class EmitterTypeServiceMetricsTest {
+
+    @TestConfiguration
+    static class MeterRegistryConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoBean
+    private EmitterTypeRepository emitterTypeRepository;
+
+    @MockitoBean
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private EmitterTypeLookupCoalescer emitterTypeLookupCoalescer;
+
+    @MockitoBean
+    private EmitterTypeCacheLoader emitterTypeCacheLoader;
+
+    @MockitoBean
+    private EmitterTypeCounter emitterTypeCounter;
+
+    @MockitoBean
+    private EmitterTypeEventOutbox emitterTypeEventOutbox;
+
+    @MockitoBean
+    private EmitterTypeTombstoneRepository emitterTypeTombstoneRepository;
+
+    @Autowired
+    private EmitterTypeService emitterTypeService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Test get emitter types page is timed per sort field")
+    void givenPageRequest_whenGetEmitterTypesPage_thenTimerIsTaggedWithSortField() {
+        // given
+        given(emitterTypeRepository.findAll(any(Pageable.class))).willReturn(new PageImpl<>(List.of()));
+
+        // when
+        emitterTypeService.getEmitterTypesPage(1, 5, "name", true, true);
+
+        // then
+        assertThat(meterRegistry.get("emitter.type.service.page")
+                .tag("method", "getEmitterTypesPage")
+                .tag("sort.field", "name")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test failed service call is timed with exception tag")
+    void givenMissingEmitterType_whenGetEmitterTypeById_thenTimerIsTaggedWithException() {
+        // given
+        given(emitterTypeLookupCoalescer.findById(Long.MAX_VALUE)).willReturn(Optional.<EmitterType>empty());
+
+        // when
+        assertThatThrownBy(() -> emitterTypeService.getEmitterTypeById(Long.MAX_VALUE))
+                .isInstanceOf(ServerException.class);
+
+        // then
+        assertThat(meterRegistry.get("emitter.type.service")
+                .tag("method", "getEmitterTypeById")
+                .tag("exception", "ExpectedServerException")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+}
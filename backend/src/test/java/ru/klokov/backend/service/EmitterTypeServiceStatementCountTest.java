@@ -0,0 +1,150 @@
+package ru.klokov.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+
+import jakarta.persistence.EntityManagerFactory;
+import ru.klokov.backend.exception.ServerException;
+import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.repository.EmitterTypeRepository;
+import ru.klokov.backend.service.implementation.DefaultEmitterTypeService;
+import ru.klokov.backend.service.implementation.EmitterTypeCacheLoader;
+import ru.klokov.backend.service.implementation.EmitterTypeCounter;
+import ru.klokov.backend.service.implementation.EmitterTypeEventOutbox;
+import ru.klokov.backend.service.implementation.EmitterTypeLookupCoalescer;
+
+@DataJpaTest
+@Import({ DefaultEmitterTypeService.class, EmitterTypeLookupCoalescer.class, EmitterTypeCacheLoader.class,
+        EmitterTypeCounter.class, EmitterTypeEventOutbox.class })
+public class EmitterTypeServiceStatementCountTest {
+
+    @Autowired
+    private EmitterTypeService emitterTypeService;
+
+    @Autowired
+    private EmitterTypeRepository emitterTypeRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    @DisplayName("Test update emitter type issues one statement on emitter_type besides the revision and its event")
+    void givenSavedEmitterType_whenUpdateEmitterType_thenFourStatementsArePrepared() {
+        // given
+        EmitterType saved = emitterTypeRepository.saveAndFlush(EmitterType.builder().name("Type 1").build());
+        statistics.clear();
+
+        // when
+        EmitterType updated = emitterTypeService.updateEmitterType(
+                saved.getId(), EmitterType.builder().name("Updated type").build(), null);
+        testEntityManager.flush();
+
+        // then
+        // Reserving the revision, reading it, the update and the event insert.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+
+        testEntityManager.clear();
+        assertThat(emitterTypeRepository.findById(saved.getId()))
+                .get()
+                .satisfies(emitterType -> {
+                    assertThat(emitterType.getName()).isEqualTo("Updated type");
+                    assertThat(emitterType.getVersion()).isEqualTo(saved.getVersion() + 1);
+                    assertThat(updated.getVersion()).isEqualTo(emitterType.getVersion());
+                    assertThat(updated.getUpdatedAt()).isEqualTo(emitterType.getUpdatedAt());
+                });
+    }
+
+    @Test
+    @DisplayName("Test conditional update emitter type issues as many statements as an unconditional one")
+    void givenSavedEmitterTypeAndMatchingVersion_whenUpdateEmitterType_thenFourStatementsArePrepared() {
+        // given
+        EmitterType saved = emitterTypeRepository.saveAndFlush(EmitterType.builder().name("Type 1").build());
+        statistics.clear();
+
+        // when
+        EmitterType updated = emitterTypeService.updateEmitterType(
+                saved.getId(), EmitterType.builder().name("Updated type").build(), saved.getVersion());
+        testEntityManager.flush();
+
+        // then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(updated.getVersion()).isEqualTo(saved.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("Test delete emitter type issues one statement on emitter_type besides the revision, event and tombstone")
+    void givenSavedEmitterType_whenDeleteEmitterType_thenFiveStatementsArePrepared() {
+        // given
+        EmitterType saved = emitterTypeRepository.saveAndFlush(EmitterType.builder().name("Type 1").build());
+        statistics.clear();
+
+        // when
+        emitterTypeService.deleteEmitterType(saved.getId(), null);
+        testEntityManager.flush();
+
+        // then
+        // Reserving the revision, reading it, the delete, the event insert and the tombstone insert.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+
+        testEntityManager.clear();
+        assertThat(emitterTypeRepository.findById(saved.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test delete missing emitter type reports not found without looking the emitter type up")
+    void givenMissingEmitterType_whenDeleteEmitterType_thenNotFoundAfterThreeStatements() {
+        // given
+        statistics.clear();
+
+        // when - then
+        assertThatThrownBy(() -> emitterTypeService.deleteEmitterType(Long.MAX_VALUE, null))
+                .isInstanceOf(ServerException.class)
+                .extracting("status")
+                .isEqualTo(HttpStatus.NOT_FOUND);
+
+        // Reserving the revision, reading it and the delete; nothing is recorded.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Test get emitter types by ids issues a single statement")
+    void givenSavedEmitterTypes_whenGetEmitterTypesByIds_thenSingleStatementIsPrepared() {
+        // given
+        EmitterType saved1 = emitterTypeRepository.saveAndFlush(EmitterType.builder().name("Type 1").build());
+        EmitterType saved2 = emitterTypeRepository.saveAndFlush(EmitterType.builder().name("Type 2").build());
+        testEntityManager.clear();
+        statistics.clear();
+
+        // when
+        List<EmitterType> emitterTypes = emitterTypeService.getEmitterTypesByIds(
+                List.of(saved2.getId(), Long.MAX_VALUE, saved1.getId()));
+
+        // then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(emitterTypes).extracting(EmitterType::getName).containsExactly("Type 2", "Type 1");
+    }
+}
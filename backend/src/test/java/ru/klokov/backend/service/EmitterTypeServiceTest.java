@@ -2,35 +2,57 @@ package ru.klokov.backend.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 
+import ru.klokov.backend.exception.ExpectedServerException;
+import ru.klokov.backend.exception.ParameterValidationException;
 import ru.klokov.backend.exception.ServerException;
 import ru.klokov.backend.model.EmitterType;
+import ru.klokov.backend.model.EmitterTypeChanges;
+import ru.klokov.backend.model.EmitterTypeTombstone;
 import ru.klokov.backend.repository.EmitterTypeRepository;
+import ru.klokov.backend.repository.EmitterTypeTombstoneRepository;
 import ru.klokov.backend.service.implementation.DefaultEmitterTypeService;
+import ru.klokov.backend.service.implementation.EmitterTypeCacheLoader;
+import ru.klokov.backend.service.implementation.EmitterTypeCounter;
+import ru.klokov.backend.service.implementation.EmitterTypeEventOutbox;
+import ru.klokov.backend.service.implementation.EmitterTypeLookupCoalescer;
 
 @ExtendWith(MockitoExtension.class)
 public class EmitterTypeServiceTest {
@@ -38,9 +60,27 @@ public class EmitterTypeServiceTest {
     @Mock
     private EmitterTypeRepository emitterTypeRepository;
 
+    @Mock
+    private EmitterTypeLookupCoalescer emitterTypeLookupCoalescer;
+
+    @Mock
+    private EmitterTypeCacheLoader emitterTypeCacheLoader;
+
+    @Mock
+    private EmitterTypeCounter emitterTypeCounter;
+
+    @Mock
+    private EmitterTypeEventOutbox emitterTypeEventOutbox;
+
+    @Mock
+    private EmitterTypeTombstoneRepository emitterTypeTombstoneRepository;
+
     @InjectMocks
     private DefaultEmitterTypeService emitterTypeService;
 
+    @Captor
+    private ArgumentCaptor<List<EmitterType>> emitterTypesCaptor;
+
     @Test
     @DisplayName("Test get all emitter types functionality")
     void givenTwoEmitterTypes_whenGetAllEmitterTypes_ShouldReturnListOfEmitterTypes() {
@@ -50,6 +90,10 @@ public class EmitterTypeServiceTest {
         List<EmitterType> expected = Arrays.asList(type1, type2);
 
         when(emitterTypeRepository.findAll()).thenReturn(expected);
+        when(emitterTypeCacheLoader.load(any())).thenAnswer(invocation -> {
+            Supplier<?> loader = invocation.getArgument(0);
+            return loader.get();
+        });
 
         // when
         List<EmitterType> actual = emitterTypeService.getAllEmitterTypes();
@@ -57,6 +101,7 @@ public class EmitterTypeServiceTest {
         // then
         assertThat(actual).isEqualTo(expected);
         verify(emitterTypeRepository, times(1)).findAll();
+        verify(emitterTypeCacheLoader, times(1)).load(any());
     }
 
     @Test
@@ -67,7 +112,7 @@ public class EmitterTypeServiceTest {
         String typeName = "Type 1";
         EmitterType expected = EmitterType.builder().id(typeId).name(typeName).build();
 
-        when(emitterTypeRepository.findById(typeId)).thenReturn(Optional.of(expected));
+        when(emitterTypeLookupCoalescer.findById(typeId)).thenReturn(Optional.of(expected));
 
         // when
         EmitterType actual = emitterTypeService.getEmitterTypeById(typeId);
@@ -75,7 +120,7 @@ public class EmitterTypeServiceTest {
         // then
         assertThat(actual.getId()).isEqualTo(typeId);
         assertThat(actual.getName()).isEqualTo(typeName);
-        verify(emitterTypeRepository, times(1)).findById(typeId);
+        verify(emitterTypeLookupCoalescer, times(1)).findById(typeId);
     }
 
     @Test
@@ -84,7 +129,7 @@ public class EmitterTypeServiceTest {
         // given
         Long typeId = Long.MAX_VALUE;
 
-        when(emitterTypeRepository.findById(typeId)).thenReturn(Optional.empty());
+        when(emitterTypeLookupCoalescer.findById(typeId)).thenReturn(Optional.empty());
 
         // when - then
         assertThatThrownBy(() -> emitterTypeService.getEmitterTypeById(typeId))
@@ -114,7 +159,7 @@ public class EmitterTypeServiceTest {
         given(emitterTypeRepository.findAll(pageable)).willReturn(mockPage);
 
         Page<EmitterType> emitterTypesPage = emitterTypeService.getEmitterTypesPage(pageNumber, pageSize, sortField,
-                sortAsc);
+                sortAsc, true);
 
         // then
         assertThat(emitterTypesPage).isNotNull();
@@ -142,6 +187,7 @@ public class EmitterTypeServiceTest {
         assertThat(actual.getId()).isEqualTo(typeId);
         assertThat(actual.getName()).isEqualTo(expected.getName());
         verify(emitterTypeRepository, times(1)).save(expected);
+        verify(emitterTypeEventOutbox).recordCreated(List.of(expected));
     }
 
     @Test
@@ -162,6 +208,8 @@ public class EmitterTypeServiceTest {
                 .hasMessage(message)
                 .extracting("status")
                 .isEqualTo(HttpStatus.CONFLICT);
+
+        verify(emitterTypeEventOutbox, never()).recordCreated(any());
     }
 
     @Test
@@ -169,25 +217,53 @@ public class EmitterTypeServiceTest {
     void givenExistingEmitterType_whenUpdateEmitterType_thenUpdatedEmitterTypeReturned() {
         // given
         Long typeId = 1L;
-        String existingName = "Type 1";
         String newName = "Updated type";
 
-        EmitterType existingEmitterType = EmitterType.builder().id(typeId).name(existingName).build();
         EmitterType newEmitterType = EmitterType.builder().name(newName).build();
-        EmitterType updatedEmitterType = EmitterType.builder().id(typeId).name(newName).build();
 
-        when(emitterTypeRepository.findById(typeId)).thenReturn(Optional.of(existingEmitterType));
-        when(emitterTypeRepository.save(any(EmitterType.class))).thenReturn(updatedEmitterType);
+        EmitterType stored = EmitterType.builder()
+                .id(typeId)
+                .name(newName)
+                .version(5L)
+                .updatedAt(Instant.parse("2024-01-01T00:00:00.123456Z"))
+                .revision(7L)
+                .build();
+
+        given(emitterTypeEventOutbox.reserveRevisions(1)).willReturn(7L);
+        given(emitterTypeRepository.updateName(eq(typeId), isNull(), eq(newName), any(Instant.class), eq(7L)))
+                .willReturn(Optional.of(stored));
 
         // when
-        EmitterType result = emitterTypeService.updateEmitterType(typeId, newEmitterType);
+        EmitterType result = emitterTypeService.updateEmitterType(typeId, newEmitterType, null);
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(typeId);
         assertThat(result.getName()).isEqualTo(newName);
+        assertThat(result.getVersion()).isEqualTo(5L);
+        assertThat(result.getUpdatedAt()).isEqualTo(stored.getUpdatedAt());
+        assertThat(result.getRevision()).isEqualTo(7L);
 
-        verify(emitterTypeRepository).findById(typeId);
-        verify(emitterTypeRepository).save(existingEmitterType);
+        verify(emitterTypeRepository).updateName(eq(typeId), isNull(), eq(newName), any(Instant.class), eq(7L));
+        verify(emitterTypeRepository, never()).findById(anyLong());
+        verify(emitterTypeEventOutbox).recordUpdated(result);
+    }
+
+    @Test
+    @DisplayName("Test update emitter type functionality (not found)")
+    void givenMissingEmitterType_whenUpdateEmitterType_thenThrowNotFoundException() {
+        // given
+        Long typeId = Long.MAX_VALUE;
+        EmitterType newEmitterType = EmitterType.builder().name("Updated type").build();
+
+        given(emitterTypeRepository.updateName(eq(typeId), isNull(), eq("Updated type"), any(Instant.class), anyLong()))
+                .willReturn(Optional.empty());
+
+        // when - then
+        assertThatThrownBy(() -> emitterTypeService.updateEmitterType(typeId, newEmitterType, null))
+                .isInstanceOf(ServerException.class)
+                .hasMessage(String.format("Тип излучателя с идентификатором %d не найден", typeId))
+                .extracting("status")
+                .isEqualTo(HttpStatus.NOT_FOUND);
     }
 
     @Test
@@ -197,24 +273,21 @@ public class EmitterTypeServiceTest {
         Long id = 1L;
         String duplicateName = "Type 1";
 
-        EmitterType existingEmitterType = EmitterType.builder().id(id).name("Type 1").build();
         EmitterType newEmitterType = EmitterType.builder().name(duplicateName).build();
 
         String message = String.format("Тип излучателя с названием \"%s\" уже существует", duplicateName);
 
-        when(emitterTypeRepository.findById(id)).thenReturn(Optional.of(existingEmitterType));
-        when(emitterTypeRepository.save(any(EmitterType.class)))
+        when(emitterTypeRepository.updateName(eq(id), isNull(), eq(duplicateName), any(Instant.class), anyLong()))
                 .thenThrow(new DataIntegrityViolationException(message));
 
         // when - then
-        assertThatThrownBy(() -> emitterTypeService.updateEmitterType(id, newEmitterType))
+        assertThatThrownBy(() -> emitterTypeService.updateEmitterType(id, newEmitterType, null))
                 .isInstanceOf(ServerException.class)
                 .hasMessage(message)
                 .extracting("status")
                 .isEqualTo(HttpStatus.CONFLICT);
 
-        verify(emitterTypeRepository).findById(id);
-        verify(emitterTypeRepository).save(existingEmitterType);
+        verify(emitterTypeRepository).updateName(eq(id), isNull(), eq(duplicateName), any(Instant.class), anyLong());
     }
 
     @Test
@@ -222,15 +295,18 @@ public class EmitterTypeServiceTest {
     void givenId_whenDeleteById_thenDeleteMethodOfRepositoryIsCalled() {
         // given
         Long typeId = 1L;
-        EmitterType existedEmitterType = EmitterType.builder().id(typeId).name("Type 1").build();
 
-        given(emitterTypeRepository.findById(anyLong())).willReturn(Optional.of(existedEmitterType));
+        given(emitterTypeEventOutbox.reserveRevisions(1)).willReturn(7L);
+        given(emitterTypeRepository.removeById(typeId)).willReturn(1);
 
         // when
-        emitterTypeService.deleteEmitterType(typeId);
+        emitterTypeService.deleteEmitterType(typeId, null);
 
         // then
-        verify(emitterTypeRepository, times(1)).deleteById(typeId);
+        verify(emitterTypeRepository, times(1)).removeById(typeId);
+        verify(emitterTypeRepository, never()).findById(anyLong());
+        verify(emitterTypeCounter).adjust(-1);
+        verify(emitterTypeEventOutbox).recordDeleted(typeId, 7L);
     }
 
     @Test
@@ -240,15 +316,341 @@ public class EmitterTypeServiceTest {
         Long typeId = Long.MAX_VALUE;
         String message = String.format("Тип излучателя с идентификатором %d не найден", typeId);
 
-        given(emitterTypeRepository.findById(typeId)).willReturn(Optional.empty());
+        given(emitterTypeRepository.removeById(typeId)).willReturn(0);
 
         // when - then    
-        assertThatThrownBy(() -> emitterTypeService.deleteEmitterType(typeId))
+        assertThatThrownBy(() -> emitterTypeService.deleteEmitterType(typeId, null))
                 .isInstanceOf(ServerException.class)
                 .hasMessage(message)
                 .extracting("status")
                 .isEqualTo(HttpStatus.NOT_FOUND);
 
-        verify(emitterTypeRepository, never()).deleteById(typeId);
+        verify(emitterTypeRepository, never()).existsById(typeId);
+    }
+
+    @Test
+    @DisplayName("Test create emitter types in batch functionality")
+    void givenEmitterTypesToCreate_whenCreateEmitterTypes_thenCreatedFlagsAreReturned() {
+        // given
+        List<EmitterType> emitterTypes = List.of(
+                EmitterType.builder().name("Type 1").build(),
+                EmitterType.builder().name("Type 2").build());
+
+        given(emitterTypeRepository.insertAllIgnoringDuplicates(List.of("Type 1", "Type 2")))
+                .willReturn(new int[] { 1, 0 });
+
+        // when
+        List<Boolean> created = emitterTypeService.createEmitterTypes(emitterTypes);
+
+        // then
+        assertThat(created).containsExactly(true, false);
+        verify(emitterTypeRepository, times(1)).insertAllIgnoringDuplicates(List.of("Type 1", "Type 2"));
+    }
+
+    @Test
+    @DisplayName("Test get emitter type by id functionality (not found exception has no stack trace)")
+    void givenId_whenGetEmitterTypeById_thenThrownNotFoundExceptionIsStackless() {
+        // given
+        Long typeId = Long.MAX_VALUE;
+
+        when(emitterTypeLookupCoalescer.findById(typeId)).thenReturn(Optional.empty());
+
+        // when - then
+        assertThatThrownBy(() -> emitterTypeService.getEmitterTypeById(typeId))
+                .isInstanceOf(ExpectedServerException.class)
+                .satisfies(exception -> assertThat(exception.getStackTrace()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test update emitter type functionality (stale version)")
+    void givenStaleExpectedVersion_whenUpdateEmitterType_thenThrowPreconditionFailedException() {
+        // given
+        Long typeId = 1L;
+        EmitterType newEmitterType = EmitterType.builder().name("Updated type").build();
+
+        given(emitterTypeRepository.updateName(
+                eq(typeId), eq(2L), eq("Updated type"), any(Instant.class), anyLong()))
+                .willReturn(Optional.empty());
+        given(emitterTypeRepository.existsById(typeId)).willReturn(true);
+
+        // when - then
+        assertThatThrownBy(() -> emitterTypeService.updateEmitterType(typeId, newEmitterType, 2L))
+                .isInstanceOf(ExpectedServerException.class)
+                .hasMessage(String.format("Тип излучателя с идентификатором %d был изменен другим пользователем", typeId))
+                .extracting("status")
+                .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    @DisplayName("Test update emitter type functionality (matching version)")
+    void givenMatchingExpectedVersion_whenUpdateEmitterType_thenNextVersionIsReturned() {
+        // given
+        Long typeId = 1L;
+        EmitterType newEmitterType = EmitterType.builder().name("Updated type").build();
+
+        given(emitterTypeRepository.updateName(
+                eq(typeId), eq(3L), eq("Updated type"), any(Instant.class), anyLong()))
+                .willReturn(Optional.of(EmitterType.builder()
+                        .id(typeId)
+                        .name("Updated type")
+                        .version(4L)
+                        .updatedAt(Instant.now())
+                        .build()));
+
+        // when
+        EmitterType result = emitterTypeService.updateEmitterType(typeId, newEmitterType, 3L);
+
+        // then
+        assertThat(result.getVersion()).isEqualTo(4L);
+        assertThat(result.getUpdatedAt()).isNotNull();
+        verify(emitterTypeRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Test delete by id functionality (stale version of missing emitter type)")
+    void givenMissingEmitterTypeAndExpectedVersion_whenDeleteById_thenThrowNotFoundException() {
+        // given
+        Long typeId = 1L;
+
+        given(emitterTypeRepository.removeByIdAndVersion(typeId, 3L)).willReturn(0);
+        given(emitterTypeRepository.existsById(typeId)).willReturn(false);
+
+        // when - then
+        assertThatThrownBy(() -> emitterTypeService.deleteEmitterType(typeId, 3L))
+                .isInstanceOf(ExpectedServerException.class)
+                .extracting("status")
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Test search emitter types builds escaped substring pattern")
+    void givenSearchQuery_whenSearchEmitterTypes_thenEscapedSubstringPatternIsUsed() {
+        // given
+        given(emitterTypeRepository.searchByName("ra_d", "%ra!_d%", "ra!_d%", Limit.of(5))).willReturn(List.of());
+
+        // when
+        emitterTypeService.searchEmitterTypes("Ra_D", 5);
+
+        // then
+        verify(emitterTypeRepository).searchByName("ra_d", "%ra!_d%", "ra!_d%", Limit.of(5));
+    }
+
+    @Test
+    @DisplayName("Test search emitter types with short query matches prefix only")
+    void givenShortSearchQuery_whenSearchEmitterTypes_thenPrefixPatternIsUsed() {
+        // given
+        given(emitterTypeRepository.searchByName("ra", "ra%", "ra%", Limit.of(5))).willReturn(List.of());
+
+        // when
+        emitterTypeService.searchEmitterTypes("RA", 5);
+
+        // then
+        verify(emitterTypeRepository).searchByName("ra", "ra%", "ra%", Limit.of(5));
+    }
+
+    @Test
+    @DisplayName("Test get emitter types page with approximate count skips count query")
+    void givenApproximateCount_whenGetPage_thenTotalComesFromCounter() {
+        // given
+        PageRequest pageable = PageRequest.of(0, 5, Sort.by("id").ascending());
+        EmitterType emitterType = EmitterType.builder().id(1L).name("Type 1").build();
+
+        given(emitterTypeRepository.findSliceBy(pageable))
+                .willReturn(new SliceImpl<>(List.of(emitterType), pageable, true));
+        given(emitterTypeCounter.getCount()).willReturn(12L);
+
+        // when
+        Page<EmitterType> emitterTypesPage = emitterTypeService.getEmitterTypesPage(1, 5, "id", true, false);
+
+        // then
+        assertThat(emitterTypesPage.getContent()).containsExactly(emitterType);
+        assertThat(emitterTypesPage.getTotalElements()).isEqualTo(12);
+        assertThat(emitterTypesPage.getTotalPages()).isEqualTo(3);
+        verify(emitterTypeRepository, never()).findAll(any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("Test get emitter types page with stale approximate count still reports next page")
+    void givenStaleCounter_whenGetPageWithApproximateCount_thenNextPageIsCounted() {
+        // given
+        PageRequest pageable = PageRequest.of(1, 5, Sort.by("id").ascending());
+        List<EmitterType> content = List.of(
+                EmitterType.builder().id(6L).name("Type 6").build(),
+                EmitterType.builder().id(7L).name("Type 7").build());
+
+        given(emitterTypeRepository.findSliceBy(pageable)).willReturn(new SliceImpl<>(content, pageable, true));
+        given(emitterTypeCounter.getCount()).willReturn(3L);
+
+        // when
+        Page<EmitterType> emitterTypesPage = emitterTypeService.getEmitterTypesPage(2, 5, "id", true, false);
+
+        // then
+        assertThat(emitterTypesPage.getTotalPages()).isEqualTo(3);
+        assertThat(emitterTypesPage.hasNext()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Test create emitter types adjusts count by created rows only")
+    void givenDuplicateInBatch_whenCreateEmitterTypes_thenCounterIsAdjustedByCreatedRows() {
+        // given
+        given(emitterTypeRepository.insertAllIgnoringDuplicates(List.of("Type 1", "Type 2", "Type 3")))
+                .willReturn(new int[] { 1, 0, 1 });
+
+        // when
+        emitterTypeService.createEmitterTypes(List.of(
+                EmitterType.builder().name("Type 1").build(),
+                EmitterType.builder().name("Type 2").build(),
+                EmitterType.builder().name("Type 3").build()));
+
+        // then
+        verify(emitterTypeCounter).adjust(2);
+    }
+
+    @Test
+    @DisplayName("Test get emitter types page sorted by name ignores case and breaks ties by id")
+    void givenNameSortField_whenGetPage_thenCaseInsensitiveSortWithIdTieBreakerIsUsed() {
+        // given
+        PageRequest pageable = PageRequest.of(0, 5,
+                Sort.by(Sort.Order.desc("name").ignoreCase(), Sort.Order.desc("id")));
+
+        given(emitterTypeRepository.findAll(pageable)).willReturn(new PageImpl<>(List.of()));
+
+        // when
+        emitterTypeService.getEmitterTypesPage(1, 5, "name", false, true);
+
+        // then
+        verify(emitterTypeRepository).findAll(pageable);
+    }
+
+    @Test
+    @DisplayName("Test get emitter types page rejects unknown sort field")
+    void givenUnknownSortField_whenGetPage_thenParameterValidationExceptionIsThrown() {
+        // when - then
+        assertThatThrownBy(() -> emitterTypeService.getEmitterTypesPage(1, 5, "version", true, true))
+                .isInstanceOf(ParameterValidationException.class)
+                .hasMessage("Некорректный параметр \"Поле сортировки\"");
+
+        verify(emitterTypeRepository, never()).findAll(any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("Test get emitter types by ids keeps requested order and skips missing ids")
+    void givenUnorderedResult_whenGetEmitterTypesByIds_thenRequestedOrderIsKept() {
+        // given
+        EmitterType emitterType1 = EmitterType.builder().id(1L).name("Type 1").build();
+        EmitterType emitterType3 = EmitterType.builder().id(3L).name("Type 3").build();
+
+        given(emitterTypeRepository.findAllById(List.of(3L, 2L, 1L))).willReturn(List.of(emitterType1, emitterType3));
+
+        // when
+        List<EmitterType> emitterTypes = emitterTypeService.getEmitterTypesByIds(List.of(3L, 2L, 1L));
+
+        // then
+        assertThat(emitterTypes).containsExactly(emitterType3, emitterType1);
+        verify(emitterTypeRepository, times(1)).findAllById(List.of(3L, 2L, 1L));
+    }
+
+    @Test
+    @DisplayName("Test create emitter types records events for created rows only")
+    void givenDuplicateInBatch_whenCreateEmitterTypes_thenEventsAreRecordedForCreatedRows() {
+        // given
+        List<EmitterType> createdEmitterTypes = List.of(
+                EmitterType.builder().id(1L).name("Type 1").version(0L).build(),
+                EmitterType.builder().id(2L).name("Type 3").version(0L).build());
+
+        given(emitterTypeRepository.insertAllIgnoringDuplicates(List.of("Type 1", "Type 2", "Type 3")))
+                .willReturn(new int[] { 1, 0, 1 });
+        given(emitterTypeRepository.findByNameInOrderById(List.of("Type 1", "Type 3"))).willReturn(createdEmitterTypes);
+        given(emitterTypeEventOutbox.reserveRevisions(2)).willReturn(11L);
+
+        // when
+        emitterTypeService.createEmitterTypes(List.of(
+                EmitterType.builder().name("Type 1").build(),
+                EmitterType.builder().name("Type 2").build(),
+                EmitterType.builder().name("Type 3").build()));
+
+        // then
+        InOrder inOrder = inOrder(emitterTypeEventOutbox, emitterTypeRepository);
+        inOrder.verify(emitterTypeEventOutbox).lockRevisions();
+        inOrder.verify(emitterTypeRepository).insertAllIgnoringDuplicates(List.of("Type 1", "Type 2", "Type 3"));
+        verify(emitterTypeRepository).updateRevisions(List.of(1L, 2L), 11L);
+        verify(emitterTypeEventOutbox).recordCreated(emitterTypesCaptor.capture());
+        assertThat(emitterTypesCaptor.getValue())
+                .extracting(EmitterType::getId, EmitterType::getName, EmitterType::getRevision)
+                .containsExactly(tuple(1L, "Type 1", 11L), tuple(2L, "Type 3", 12L));
+    }
+
+    @Test
+    @DisplayName("Test get emitter type changes merges rows and tombstones up to the limit")
+    void givenRowsAndTombstones_whenGetEmitterTypeChangesWithLimit_thenLowestRevisionsAreReturned() {
+        // given
+        given(emitterTypeEventOutbox.getLastRevision()).willReturn(20L);
+        given(emitterTypeRepository.findChanges(10L, 20L, Limit.of(3))).willReturn(List.of(
+                EmitterType.builder().id(1L).name("Type 1").revision(11L).build(),
+                EmitterType.builder().id(2L).name("Type 2").revision(14L).build()));
+        given(emitterTypeTombstoneRepository.findChanges(10L, 20L, Limit.of(3))).willReturn(List.of(
+                EmitterTypeTombstone.builder().emitterTypeId(5L).revision(12L).build(),
+                EmitterTypeTombstone.builder().emitterTypeId(6L).revision(13L).build()));
+        given(emitterTypeTombstoneRepository.findCompactedRevision()).willReturn(0L);
+
+        // when
+        EmitterTypeChanges changes = emitterTypeService.getEmitterTypeChanges(10L, 2);
+
+        // then
+        assertThat(changes.isResyncRequired()).isFalse();
+        assertThat(changes.isHasMore()).isTrue();
+        assertThat(changes.getRevision()).isEqualTo(12L);
+        assertThat(changes.getChanged()).extracting(EmitterType::getId).containsExactly(1L);
+        assertThat(changes.getDeleted()).containsExactly(5L);
+    }
+
+    @Test
+    @DisplayName("Test get emitter type changes returns the last revision when all changes fit")
+    void givenFewChanges_whenGetEmitterTypeChanges_thenLastRevisionIsReturned() {
+        // given
+        given(emitterTypeEventOutbox.getLastRevision()).willReturn(20L);
+        given(emitterTypeRepository.findChanges(0L, 20L, Limit.of(101))).willReturn(List.of(
+                EmitterType.builder().id(1L).name("Type 1").revision(11L).build()));
+
+        // when
+        EmitterTypeChanges changes = emitterTypeService.getEmitterTypeChanges(0L, 100);
+
+        // then
+        assertThat(changes.isHasMore()).isFalse();
+        assertThat(changes.getRevision()).isEqualTo(20L);
+        assertThat(changes.getChanged()).extracting(EmitterType::getId).containsExactly(1L);
+        assertThat(changes.getDeleted()).isEmpty();
+        verifyNoInteractions(emitterTypeTombstoneRepository);
+    }
+
+    @Test
+    @DisplayName("Test get emitter type changes requires a resync behind the compacted revision")
+    void givenCompactedTombstones_whenGetEmitterTypeChanges_thenResyncIsRequired() {
+        // given
+        given(emitterTypeEventOutbox.getLastRevision()).willReturn(20L);
+        given(emitterTypeRepository.findChanges(3L, 20L, Limit.of(101))).willReturn(List.of(
+                EmitterType.builder().id(1L).name("Type 1").revision(11L).build()));
+        given(emitterTypeTombstoneRepository.findChanges(3L, 20L, Limit.of(101))).willReturn(List.of());
+        given(emitterTypeTombstoneRepository.findCompactedRevision()).willReturn(5L);
+
+        // when
+        EmitterTypeChanges changes = emitterTypeService.getEmitterTypeChanges(3L, 100);
+
+        // then
+        assertThat(changes.isResyncRequired()).isTrue();
+        assertThat(changes.getRevision()).isEqualTo(20L);
+        assertThat(changes.getChanged()).isEmpty();
+        assertThat(changes.getDeleted()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test get emitter types window by name seeks on the lower-cased name")
+    void givenNameSortField_whenGetWindow_thenLowerNameScrollIsUsed() {
+        // when
+        emitterTypeService.getEmitterTypesWindow(ScrollPosition.keyset(), 5, "name", true);
+
+        // then
+        verify(emitterTypeRepository).scrollByLowerName(ScrollPosition.keyset(), true, Limit.of(5));
+        verify(emitterTypeRepository, never()).findAllBy(any(), any(), any());
     }
 }